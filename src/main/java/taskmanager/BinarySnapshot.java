@@ -0,0 +1,215 @@
+package main.java.taskmanager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Бинарный снимок состояния менеджера.
+ * Заголовок: magic (int), version (int), количество записей (int), количество зависимостей (int).
+ * Запись: type (byte), status (byte), id (int), epicId (int), startTime в минутах от эпохи (long),
+ * duration в минутах (long), name и description как длина (int) + байты UTF-8.
+ * После записей идут зависимости: id задачи (int) и id задачи, от которой она зависит (int).
+ * В версии 1 зависимостей нет, а последнее поле заголовка — резерв, который не читается.
+ */
+public final class BinarySnapshot {
+
+    static final int MAGIC = 0x4B4E424E;
+    static final int VERSION = 2;
+    static final int VERSION_WITHOUT_DEPENDENCIES = 1;
+    static final int HEADER_SIZE = 16;
+
+    private static final long NO_TIME = Task.NO_TIME;
+    private static final byte NO_STATUS = -1;
+    private static final int NO_STRING = -1;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private BinarySnapshot() {
+    }
+
+    public static boolean isBinary(File file) {
+        if (!file.exists() || file.length() < HEADER_SIZE) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            channel.read(header, 0);
+            header.flip();
+            return header.getInt() == MAGIC;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при чтении файла: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    public static void write(File file, Collection<Task> tasks, Collection<Epic> epics, Collection<SubTask> subTasks) {
+        write(file, tasks, epics, subTasks, new int[0]);
+    }
+
+    /**
+     * {@code dependencies} — пары подряд, как в {@link DependencyGraph#edges()}.
+     */
+    public static void write(File file, Collection<Task> tasks, Collection<Epic> epics, Collection<SubTask> subTasks,
+                             int[] dependencies) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(tasks.size() + epics.size() + subTasks.size());
+            buffer.putInt(dependencies.length / 2);
+
+            for (Task task : tasks) {
+                buffer = writeRecord(channel, buffer, task, TaskType.TASK, 0);
+            }
+            for (Epic epic : epics) {
+                buffer = writeRecord(channel, buffer, epic, TaskType.EPIC, 0);
+            }
+            for (SubTask subTask : subTasks) {
+                buffer = writeRecord(channel, buffer, subTask, TaskType.SUBTASK, subTask.getEpicId());
+            }
+            for (int dependency : dependencies) {
+                if (buffer.remaining() < 4) {
+                    drain(channel, buffer);
+                }
+                buffer.putInt(dependency);
+            }
+
+            drain(channel, buffer);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при сохранении в файл: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    public static void read(File file, Consumer<Task> consumer) {
+        read(file, consumer, (task, dependency) -> { });
+    }
+
+    public static void read(File file, Consumer<Task> consumer, BiConsumer<Integer, Integer> dependencyConsumer) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new ManagerSaveException("Снимок больше 2 ГБ не поддерживается: " + file.getAbsolutePath());
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC) {
+                throw new ManagerSaveException("Файл не является бинарным снимком: " + file.getAbsolutePath());
+            }
+            int version = buffer.getInt();
+            if (version != VERSION && version != VERSION_WITHOUT_DEPENDENCIES) {
+                throw new ManagerSaveException("Неподдерживаемая версия снимка: " + version);
+            }
+            int count = buffer.getInt();
+            int reserved = buffer.getInt();
+            int dependencies = version == VERSION ? reserved : 0;
+
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < count; i++) {
+                TaskType type = TYPES[buffer.get()];
+                byte status = buffer.get();
+                int id = buffer.getInt();
+                int epicId = buffer.getInt();
+                long start = buffer.getLong();
+                long duration = buffer.getLong();
+
+                int nameLength = buffer.getInt();
+                if (nameLength > scratch.length) {
+                    scratch = new byte[Math.max(nameLength, scratch.length * 2)];
+                }
+                String name = readString(buffer, nameLength, scratch);
+
+                int descriptionLength = buffer.getInt();
+                if (descriptionLength > scratch.length) {
+                    scratch = new byte[Math.max(descriptionLength, scratch.length * 2)];
+                }
+                String description = readString(buffer, descriptionLength, scratch);
+
+                TaskStatus taskStatus = status == NO_STATUS ? null : STATUSES[status];
+                Task task;
+                switch (type) {
+                    case EPIC:
+                        task = new Epic(id, name, description, taskStatus);
+                        break;
+                    case SUBTASK:
+                        task = new SubTask(epicId, id, name, description, taskStatus);
+                        break;
+                    default:
+                        task = new Task(id, name, description, taskStatus);
+                }
+                if (start != NO_TIME) {
+                    task.setStartTime(Task.fromEpochMinute(start));
+                }
+                if (duration != NO_TIME) {
+                    task.setDuration(Duration.ofMinutes(duration));
+                }
+                consumer.accept(task);
+            }
+            for (int i = 0; i < dependencies; i++) {
+                dependencyConsumer.accept(buffer.getInt(), buffer.getInt());
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при загрузке из файла: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    private static ByteBuffer writeRecord(FileChannel channel, ByteBuffer buffer, Task task, TaskType type, int epicId)
+            throws IOException {
+        byte[] name = task.getName() == null ? null : task.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] description = task.getDescription() == null
+                ? null : task.getDescription().getBytes(StandardCharsets.UTF_8);
+        int size = 1 + 1 + 4 + 4 + 8 + 8 + 4 + (name == null ? 0 : name.length)
+                + 4 + (description == null ? 0 : description.length);
+
+        if (buffer.remaining() < size) {
+            drain(channel, buffer);
+            if (buffer.capacity() < size) {
+                buffer = ByteBuffer.allocateDirect(size);
+            }
+        }
+
+        buffer.put((byte) type.ordinal());
+        buffer.put(task.getStatus() == null ? NO_STATUS : (byte) task.getStatus().ordinal());
+        buffer.putInt(task.getId());
+        buffer.putInt(epicId);
+        buffer.putLong(Task.toEpochMinute(task.getStartTime()));
+        buffer.putLong(task.getDuration() == null ? NO_TIME : task.getDuration().toMinutes());
+        putBytes(buffer, name);
+        putBytes(buffer, description);
+        return buffer;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(NO_STRING);
+            return;
+        }
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer, int length, byte[] scratch) {
+        if (length == NO_STRING) {
+            return null;
+        }
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,267 @@
+package main.java.taskmanager;
+
+import main.java.taskmanager.util.IntIntMap;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Хранилище задач в виде параллельных примитивных массивов: одна строка на задачу, без объектов
+ * Task, LocalDateTime и Duration в куче. Объект задачи собирается заново при каждом чтении через Map,
+ * поэтому менять его после put бесполезно — нужно положить задачу снова.
+ * Время хранится в минутах от эпохи (UTC), с той же точностью, что в JSON, CSV и бинарном снимке.
+ */
+public class CompactTaskStore<T extends Task> extends AbstractMap<Integer, T> {
+
+    public static final long NO_TIME = Task.NO_TIME;
+
+    private static final int NO_DURATION = Integer.MIN_VALUE;
+    private static final byte NO_STATUS = -1;
+    private static final int MIN_CAPACITY = 16;
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final boolean subTasks;
+    private final IntIntMap rows = new IntIntMap();
+
+    private int[] ids = new int[MIN_CAPACITY];
+    private byte[] statuses = new byte[MIN_CAPACITY];
+    private long[] starts = new long[MIN_CAPACITY];
+    private int[] durations = new int[MIN_CAPACITY];
+    private int[] epicIds;
+    private String[] names = new String[MIN_CAPACITY];
+    private String[] descriptions = new String[MIN_CAPACITY];
+    private int size;
+
+    private CompactTaskStore(boolean subTasks) {
+        this.subTasks = subTasks;
+        this.epicIds = subTasks ? new int[MIN_CAPACITY] : null;
+    }
+
+    public static CompactTaskStore<Task> forTasks() {
+        return new CompactTaskStore<>(false);
+    }
+
+    public static CompactTaskStore<SubTask> forSubTasks() {
+        return new CompactTaskStore<>(true);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int id) {
+        return rows.containsKey(id);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey((int) (Integer) key);
+    }
+
+    public T get(int id) {
+        int row = rows.get(id, -1);
+        return row < 0 ? null : materialize(row);
+    }
+
+    @Override
+    public T get(Object key) {
+        return key instanceof Integer ? get((int) (Integer) key) : null;
+    }
+
+    public long startMinute(int id) {
+        int row = rows.get(id, -1);
+        return row < 0 ? NO_TIME : starts[row];
+    }
+
+    public long endMinute(int id) {
+        int row = rows.get(id, -1);
+        if (row < 0 || starts[row] == NO_TIME || durations[row] == NO_DURATION) {
+            return NO_TIME;
+        }
+        return starts[row] + durations[row];
+    }
+
+    public T put(int id, T task) {
+        if (task == null) {
+            throw new NullPointerException("CompactTaskStore не хранит null");
+        }
+        int duration = task.getDuration() == null ? NO_DURATION : Math.toIntExact(task.getDuration().toMinutes());
+        int row = rows.get(id, -1);
+        T previous = null;
+        if (row < 0) {
+            row = size++;
+            ensureCapacity(size);
+            rows.put(id, row);
+        } else {
+            previous = materialize(row);
+        }
+        write(row, id, task, duration);
+        return previous;
+    }
+
+    @Override
+    public T put(Integer key, T task) {
+        return put((int) key, task);
+    }
+
+    public T remove(int id) {
+        int row = rows.get(id, -1);
+        if (row < 0) {
+            return null;
+        }
+        T removed = materialize(row);
+        rows.remove(id);
+        int last = --size;
+        if (row != last) {
+            moveRow(last, row);
+            rows.put(ids[row], row);
+        }
+        names[last] = null;
+        descriptions[last] = null;
+        return removed;
+    }
+
+    @Override
+    public T remove(Object key) {
+        return key instanceof Integer ? remove((int) (Integer) key) : null;
+    }
+
+    @Override
+    public void clear() {
+        for (int row = 0; row < size; row++) {
+            rows.remove(ids[row]);
+        }
+        Arrays.fill(names, 0, size, null);
+        Arrays.fill(descriptions, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    public Collection<T> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new RowIterator<>() {
+                    @Override
+                    T at(int row) {
+                        return materialize(row);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<Integer, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, T>> iterator() {
+                return new RowIterator<>() {
+                    @Override
+                    Entry<Integer, T> at(int row) {
+                        return new SimpleImmutableEntry<>(ids[row], materialize(row));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void write(int row, int id, T task, int duration) {
+        ids[row] = id;
+        statuses[row] = task.getStatus() == null ? NO_STATUS : (byte) task.getStatus().ordinal();
+        starts[row] = task.getStartMinute();
+        durations[row] = duration;
+        names[row] = task.getName();
+        descriptions[row] = task.getDescription();
+        if (subTasks) {
+            epicIds[row] = ((SubTask) task).getEpicId();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T materialize(int row) {
+        TaskStatus status = statuses[row] == NO_STATUS ? null : STATUSES[statuses[row]];
+        Task task = subTasks
+                ? new SubTask(epicIds[row], ids[row], names[row], descriptions[row], status)
+                : new Task(ids[row], names[row], descriptions[row], status);
+        if (starts[row] != NO_TIME) {
+            task.setStartTime(LocalDateTime.ofEpochSecond(starts[row] * 60, 0, ZoneOffset.UTC));
+        }
+        if (durations[row] != NO_DURATION) {
+            task.setDuration(Duration.ofMinutes(durations[row]));
+        }
+        return (T) task;
+    }
+
+    private void moveRow(int from, int to) {
+        ids[to] = ids[from];
+        statuses[to] = statuses[from];
+        starts[to] = starts[from];
+        durations[to] = durations[from];
+        names[to] = names[from];
+        descriptions[to] = descriptions[from];
+        if (subTasks) {
+            epicIds[to] = epicIds[from];
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int length = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, length);
+        statuses = Arrays.copyOf(statuses, length);
+        starts = Arrays.copyOf(starts, length);
+        durations = Arrays.copyOf(durations, length);
+        names = Arrays.copyOf(names, length);
+        descriptions = Arrays.copyOf(descriptions, length);
+        if (subTasks) {
+            epicIds = Arrays.copyOf(epicIds, length);
+        }
+    }
+
+    private abstract class RowIterator<E> implements Iterator<E> {
+        private int row;
+
+        abstract E at(int row);
+
+        @Override
+        public boolean hasNext() {
+            return row < size;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return at(row++);
+        }
+    }
+}
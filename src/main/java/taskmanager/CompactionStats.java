@@ -0,0 +1,49 @@
+package main.java.taskmanager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public class CompactionStats {
+
+    private final long logSize;
+    private final long compactions;
+    private final LocalDateTime lastCompactionTime;
+    private final Duration lastReplayDuration;
+    private final Duration lastCompactionDuration;
+
+    public CompactionStats(long logSize, long compactions, LocalDateTime lastCompactionTime,
+                           Duration lastReplayDuration, Duration lastCompactionDuration) {
+        this.logSize = logSize;
+        this.compactions = compactions;
+        this.lastCompactionTime = lastCompactionTime;
+        this.lastReplayDuration = lastReplayDuration;
+        this.lastCompactionDuration = lastCompactionDuration;
+    }
+
+    public long getLogSize() {
+        return logSize;
+    }
+
+    public long getCompactions() {
+        return compactions;
+    }
+
+    public LocalDateTime getLastCompactionTime() {
+        return lastCompactionTime;
+    }
+
+    public Duration getLastReplayDuration() {
+        return lastReplayDuration;
+    }
+
+    public Duration getLastCompactionDuration() {
+        return lastCompactionDuration;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactionStats{" + "logSize=" + logSize + ", compactions=" + compactions
+                + ", lastCompactionTime=" + lastCompactionTime + ", lastReplayDuration=" + lastReplayDuration
+                + ", lastCompactionDuration=" + lastCompactionDuration + '}';
+    }
+}
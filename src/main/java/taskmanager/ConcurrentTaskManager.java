@@ -0,0 +1,272 @@
+package main.java.taskmanager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Потокобезопасный менеджер задач.
+ * <p>
+ * Все изменения идут под одной блокировкой доски на запись, чтения — под ней же на чтение. Индексы
+ * по времени, статусу, тексту, зависимостям и порядку id общие для всей доски, поэтому любое изменение
+ * задевает их целиком и разделять блокировку по эпикам бессмысленно. Для согласованного среза доски без
+ * блокировки читателей используется {@link #getSnapshot()}.
+ */
+public class ConcurrentTaskManager extends InMemoryTaskManager {
+
+    private final ReadWriteLock boardLock = new ReentrantReadWriteLock();
+    private final Object idLock = new Object();
+
+    public ConcurrentTaskManager() {
+        super(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(),
+                new SynchronizedHistoryManager(Managers.getDefaultHistory()));
+    }
+
+    @Override
+    public void addTask(Task task) {
+        exclusive(() -> super.addTask(task));
+    }
+
+    @Override
+    public void addEpic(Epic epic) {
+        exclusive(() -> super.addEpic(epic));
+    }
+
+    @Override
+    public void addSubTask(SubTask subTask) {
+        exclusive(() -> super.addSubTask(subTask));
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        if (isSnapshotReads()) {
+            return getSnapshot().getTasks();
+        }
+        return read(super::getAllTasks);
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        if (isSnapshotReads()) {
+            return getSnapshot().getEpics();
+        }
+        return read(super::getAllEpics);
+    }
+
+    @Override
+    public List<SubTask> getAllSubTasks() {
+        if (isSnapshotReads()) {
+            return getSnapshot().getSubTasks();
+        }
+        return read(super::getAllSubTasks);
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        exclusive(super::deleteAllTasks);
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        exclusive(super::deleteAllEpics);
+    }
+
+    @Override
+    public void deleteAllSubTasks() {
+        exclusive(super::deleteAllSubTasks);
+    }
+
+    @Override
+    public Task getTaskById(int taskId) {
+        return read(() -> super.getTaskById(taskId));
+    }
+
+    @Override
+    public Epic getEpicById(int epicId) {
+        return read(() -> super.getEpicById(epicId));
+    }
+
+    @Override
+    public SubTask getSubTaskById(int subTaskId) {
+        return read(() -> super.getSubTaskById(subTaskId));
+    }
+
+    @Override
+    public void deleteTaskById(int taskId) {
+        exclusive(() -> super.deleteTaskById(taskId));
+    }
+
+    @Override
+    public void deleteEpicById(int epicId) {
+        exclusive(() -> super.deleteEpicById(epicId));
+    }
+
+    @Override
+    public void deleteSubTaskById(int subTaskId) {
+        exclusive(() -> super.deleteSubTaskById(subTaskId));
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        exclusive(() -> super.updateTask(task));
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        exclusive(() -> super.updateEpic(epic));
+    }
+
+    @Override
+    public void updateSubTask(SubTask subTask) {
+        exclusive(() -> super.updateSubTask(subTask));
+    }
+
+    @Override
+    public void addAll(List<? extends Task> items) {
+        exclusive(() -> super.addAll(items));
+    }
+
+    @Override
+    public void updateAll(List<? extends Task> items) {
+        exclusive(() -> super.updateAll(items));
+    }
+
+    @Override
+    public void deleteAll(Collection<Integer> ids) {
+        exclusive(() -> super.deleteAll(ids));
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return read(super::getHistory);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return read(super::getPrioritizedTasks);
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        return read(() -> super.getTasksByStatus(status));
+    }
+
+    @Override
+    public List<Epic> getEpicsByStatus(TaskStatus status) {
+        return read(() -> super.getEpicsByStatus(status));
+    }
+
+    @Override
+    public List<SubTask> getSubTasksByStatus(TaskStatus status) {
+        return read(() -> super.getSubTasksByStatus(status));
+    }
+
+    @Override
+    public List<SubTask> getEpicSubTasks(int epicId, TaskStatus status) {
+        return read(() -> super.getEpicSubTasks(epicId, status));
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        return read(() -> super.search(query, limit));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return read(() -> super.getPrioritizedTasks(from, to));
+    }
+
+    @Override
+    public LocalDateTime findFreeSlot(LocalDateTime after, Duration duration) {
+        return read(() -> super.findFreeSlot(after, duration));
+    }
+
+    @Override
+    public void addDependency(int taskId, int dependencyId) {
+        exclusive(() -> super.addDependency(taskId, dependencyId));
+    }
+
+    @Override
+    public void removeDependency(int taskId, int dependencyId) {
+        exclusive(() -> super.removeDependency(taskId, dependencyId));
+    }
+
+    @Override
+    public TaskDependencies getDependencies(int taskId) {
+        return read(() -> super.getDependencies(taskId));
+    }
+
+    @Override
+    public List<Task> getCriticalPath() {
+        return read(super::getCriticalPath);
+    }
+
+    @Override
+    public List<Task> getActiveTasks(LocalDateTime at) {
+        return read(() -> super.getActiveTasks(at));
+    }
+
+    @Override
+    public Page<Task> getTasks(int limit, String cursor) {
+        return read(() -> super.getTasks(limit, cursor));
+    }
+
+    @Override
+    public Page<Epic> getEpics(int limit, String cursor) {
+        return read(() -> super.getEpics(limit, cursor));
+    }
+
+    @Override
+    public Page<SubTask> getSubTasks(int limit, String cursor) {
+        return read(() -> super.getSubTasks(limit, cursor));
+    }
+
+    @Override
+    public Page<Task> getPrioritizedTasks(int limit, String cursor) {
+        return read(() -> super.getPrioritizedTasks(limit, cursor));
+    }
+
+    @Override
+    public TaskSnapshot getSnapshot() {
+        TaskSnapshot current = currentSnapshot();
+        if (current != null) {
+            return current;
+        }
+        boardLock.writeLock().lock();
+        try {
+            return super.getSnapshot();
+        } finally {
+            boardLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected int generateId() {
+        synchronized (idLock) {
+            return super.generateId();
+        }
+    }
+
+    private <T> T read(Supplier<T> action) {
+        boardLock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            boardLock.readLock().unlock();
+        }
+    }
+
+    private void exclusive(Runnable action) {
+        boardLock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            boardLock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package main.java.taskmanager;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+public class CsvRowCodec {
+
+    public static final String HEADER = "id,type,name,status,description,epic,startTime,duration";
+
+    private static final int FIELD_COUNT = 8;
+    private static final int LEGACY_FIELD_COUNT = 6;
+    private static final String NULL_MARKER = "\\N";
+
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private char[] buffer = new char[256];
+    private int position;
+
+    private final int[] fieldStart = new int[FIELD_COUNT];
+    private final int[] fieldEnd = new int[FIELD_COUNT];
+    private final boolean[] fieldEscaped = new boolean[FIELD_COUNT];
+    private final StringBuilder unescaped = new StringBuilder();
+
+    public void writeHeader(Writer out) throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+    }
+
+    public void writeRow(Task task, Writer out) throws IOException {
+        encode(task);
+        out.write(buffer, 0, position);
+        out.write('\n');
+    }
+
+    public String toRow(Task task) {
+        encode(task);
+        return new String(buffer, 0, position);
+    }
+
+    public Task parse(String line) {
+        return parse(line, 0);
+    }
+
+    public Task parse(String line, int from) {
+        int count = split(line, from);
+        if (count < LEGACY_FIELD_COUNT) {
+            throw new IllegalArgumentException("Некорректная строка: " + line);
+        }
+
+        int id = Integer.parseInt(line, fieldStart[0], fieldEnd[0], 10);
+        TaskType type = TYPES[match(line, 1, TYPES)];
+        String name = text(line, 2);
+        TaskStatus status = isNull(line, 3) ? null : STATUSES[match(line, 3, STATUSES)];
+        String description = text(line, 4);
+
+        Task task;
+        switch (type) {
+            case TASK:
+                task = new Task(id, name, description, status);
+                break;
+            case EPIC:
+                task = new Epic(id, name, description, status);
+                break;
+            case SUBTASK:
+                int epicId = Integer.parseInt(line, fieldStart[5], fieldEnd[5], 10);
+                task = new SubTask(epicId, id, name, description, status);
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестный тип задачи: " + type);
+        }
+
+        if (count > 6 && fieldEnd[6] > fieldStart[6]) {
+            task.setStartTime(LocalDateTime.parse(line.substring(fieldStart[6], fieldEnd[6])));
+        }
+        if (count > 7 && fieldEnd[7] > fieldStart[7]) {
+            task.setDuration(Duration.ofMinutes(Long.parseLong(line, fieldStart[7], fieldEnd[7], 10)));
+        }
+        return task;
+    }
+
+    private void encode(Task task) {
+        position = 0;
+        TaskType type = TaskType.TASK;
+        int epicId = 0;
+        if (task instanceof SubTask) {
+            type = TaskType.SUBTASK;
+            epicId = ((SubTask) task).getEpicId();
+        } else if (task instanceof Epic) {
+            type = TaskType.EPIC;
+        }
+
+        appendLong(task.getId());
+        append(',');
+        append(type.name());
+        append(',');
+        appendEscaped(task.getName());
+        append(',');
+        append(task.getStatus() == null ? NULL_MARKER : task.getStatus().name());
+        append(',');
+        appendEscaped(task.getDescription());
+        append(',');
+        if (type == TaskType.SUBTASK) {
+            appendLong(epicId);
+        }
+        append(',');
+        if (task.getStartTime() != null) {
+            appendTime(task.getStartTime());
+        }
+        append(',');
+        if (task.getDuration() != null) {
+            appendLong(task.getDuration().toMinutes());
+        }
+    }
+
+    private void appendEscaped(String value) {
+        if (value == null) {
+            append(NULL_MARKER);
+            return;
+        }
+        ensureCapacity(value.length() * 2);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case ',':
+                case '\\':
+                    buffer[position++] = '\\';
+                    buffer[position++] = c;
+                    break;
+                case '\n':
+                    buffer[position++] = '\\';
+                    buffer[position++] = 'n';
+                    break;
+                case '\r':
+                    buffer[position++] = '\\';
+                    buffer[position++] = 'r';
+                    break;
+                default:
+                    buffer[position++] = c;
+            }
+        }
+    }
+
+    private void appendTime(LocalDateTime time) {
+        int year = time.getYear();
+        if (year < 0 || year > 9999 || time.getNano() != 0) {
+            append(time.toString());
+            return;
+        }
+        appendPadded(year, 4);
+        append('-');
+        appendPadded(time.getMonthValue(), 2);
+        append('-');
+        appendPadded(time.getDayOfMonth(), 2);
+        append('T');
+        appendPadded(time.getHour(), 2);
+        append(':');
+        appendPadded(time.getMinute(), 2);
+        if (time.getSecond() != 0) {
+            append(':');
+            appendPadded(time.getSecond(), 2);
+        }
+    }
+
+    private void appendPadded(int value, int width) {
+        ensureCapacity(width);
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void appendLong(long value) {
+        ensureCapacity(20);
+        if (value == Long.MIN_VALUE) {
+            append(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    private void append(String value) {
+        ensureCapacity(value.length());
+        value.getChars(0, value.length(), buffer, position);
+        position += value.length();
+    }
+
+    private void append(char c) {
+        ensureCapacity(1);
+        buffer[position++] = c;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+
+    private int split(String line, int from) {
+        int count = 0;
+        int start = from;
+        boolean escaped = false;
+        int end = line.length();
+        while (end > from && (line.charAt(end - 1) == '\r' || line.charAt(end - 1) == ' ')) {
+            end--;
+        }
+        for (int i = from; i <= end && count < FIELD_COUNT; i++) {
+            if (i == end || line.charAt(i) == ',') {
+                fieldStart[count] = start;
+                fieldEnd[count] = i;
+                fieldEscaped[count] = escaped;
+                count++;
+                start = i + 1;
+                escaped = false;
+            } else if (line.charAt(i) == '\\') {
+                escaped = true;
+                i++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isNull(String line, int field) {
+        return fieldEnd[field] - fieldStart[field] == NULL_MARKER.length()
+                && line.startsWith(NULL_MARKER, fieldStart[field]);
+    }
+
+    private String text(String line, int field) {
+        if (!fieldEscaped[field]) {
+            return line.substring(fieldStart[field], fieldEnd[field]);
+        }
+        if (isNull(line, field)) {
+            return null;
+        }
+        unescaped.setLength(0);
+        for (int i = fieldStart[field]; i < fieldEnd[field]; i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < fieldEnd[field]) {
+                char next = line.charAt(++i);
+                unescaped.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    private int match(String line, int field, Enum<?>[] values) {
+        int length = fieldEnd[field] - fieldStart[field];
+        for (Enum<?> value : values) {
+            String name = value.name();
+            if (name.length() == length && line.startsWith(name, fieldStart[field])) {
+                return value.ordinal();
+            }
+        }
+        throw new IllegalArgumentException("Неизвестное значение: " + line.substring(fieldStart[field], fieldEnd[field]));
+    }
+}
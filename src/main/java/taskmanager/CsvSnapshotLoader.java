@@ -0,0 +1,147 @@
+package main.java.taskmanager;
+
+import main.java.taskmanager.util.IntList;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+public final class CsvSnapshotLoader {
+
+    /**
+     * Строка зависимости после строк задач: "DEP,<id задачи>,<id задачи, от которой она зависит>".
+     */
+    public static final String DEPENDENCY = "DEP";
+
+    private static final int CHUNK_SIZE = 1 << 22;
+
+    private CsvSnapshotLoader() {
+    }
+
+    public static void load(File file, Consumer<Task> sink) {
+        load(file, ForkJoinPool.commonPool(), sink);
+    }
+
+    public static void load(File file, ForkJoinPool pool, Consumer<Task> sink) {
+        load(file, pool, sink, (task, dependency) -> { });
+    }
+
+    public static void load(File file, Consumer<Task> sink, BiConsumer<Integer, Integer> dependencySink) {
+        load(file, ForkJoinPool.commonPool(), sink, dependencySink);
+    }
+
+    public static void load(File file, ForkJoinPool pool, Consumer<Task> sink,
+                            BiConsumer<Integer, Integer> dependencySink) {
+        int maxInFlight = Math.max(2, pool.getParallelism() * 2);
+        Deque<ForkJoinTask<Chunk>> inFlight = new ArrayDeque<>();
+
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] leftover = new byte[0];
+            boolean headerSkipped = false;
+            boolean eof = false;
+
+            while (!eof) {
+                byte[] chunk = Arrays.copyOf(leftover, leftover.length + CHUNK_SIZE);
+                int length = leftover.length;
+                while (length < chunk.length) {
+                    int read = in.read(chunk, length, chunk.length - length);
+                    if (read < 0) {
+                        eof = true;
+                        break;
+                    }
+                    length += read;
+                }
+
+                int end = eof ? length : lastLineBreak(chunk, length) + 1;
+                if (end == 0) {
+                    leftover = Arrays.copyOf(chunk, length);
+                    continue;
+                }
+                leftover = Arrays.copyOfRange(chunk, end, length);
+
+                int start = 0;
+                if (!headerSkipped) {
+                    start = nextLineStart(chunk, 0, end);
+                    headerSkipped = true;
+                }
+
+                int from = start;
+                inFlight.addLast(pool.submit(() -> parse(chunk, from, end)));
+                if (inFlight.size() >= maxInFlight) {
+                    inFlight.pollFirst().join().deliver(sink, dependencySink);
+                }
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при загрузке из файла: " + file.getAbsolutePath(), e);
+        }
+
+        while (!inFlight.isEmpty()) {
+            inFlight.pollFirst().join().deliver(sink, dependencySink);
+        }
+    }
+
+    private static Chunk parse(byte[] chunk, int from, int to) {
+        Chunk parsed = new Chunk();
+        CsvRowCodec codec = new CsvRowCodec();
+        int lineStart = from;
+        while (lineStart < to) {
+            int lineEnd = lineStart;
+            while (lineEnd < to && chunk[lineEnd] != '\n') {
+                lineEnd++;
+            }
+
+            String line = new String(chunk, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8).trim();
+            if (line.startsWith(DEPENDENCY + ",")) {
+                String[] parts = line.split(",");
+                parsed.dependencies.addInt(Integer.parseInt(parts[1]));
+                parsed.dependencies.addInt(Integer.parseInt(parts[2]));
+            } else if (!line.isEmpty()) {
+                parsed.tasks.add(codec.parse(line));
+            }
+            lineStart = lineEnd + 1;
+        }
+        return parsed;
+    }
+
+    // Задачи и зависимости одного куска; зависимости пишутся после всех задач и отдаются после задач куска.
+    private static final class Chunk {
+        final List<Task> tasks = new ArrayList<>();
+        final IntList dependencies = new IntList();
+
+        void deliver(Consumer<Task> sink, BiConsumer<Integer, Integer> dependencySink) {
+            tasks.forEach(sink);
+            for (int i = 0; i < dependencies.size(); i += 2) {
+                dependencySink.accept(dependencies.getInt(i), dependencies.getInt(i + 1));
+            }
+        }
+    }
+
+    private static int lastLineBreak(byte[] chunk, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (chunk[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int nextLineStart(byte[] chunk, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (chunk[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return to;
+    }
+}
@@ -0,0 +1,464 @@
+package main.java.taskmanager;
+
+import main.java.taskmanager.exception.TaskValidationException;
+import main.java.taskmanager.util.IntIntMap;
+import main.java.taskmanager.util.IntList;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Граф зависимостей между задачами. Узлы лежат в плотных массивах, смежность в обе стороны хранится
+ * списками int. Граф держит топологический порядок узлов (алгоритм Пирса — Келли): ребро, которое
+ * порядок не нарушает или ведет в новый узел, добавляется за O(1), иначе переставляются только узлы
+ * между концами ребра, и тот же обход находит цикл. Раннее начало и окончание пересчитываются вниз
+ * по графу в топологическом порядке и только до тех узлов, у которых окончание не изменилось. В графе
+ * есть только задачи хотя бы с одной зависимостью; время хранится в минутах от эпохи, как
+ * в {@link TaskTimeIndex}.
+ */
+public class DependencyGraph {
+
+    private static final long NO_TIME = Task.NO_TIME;
+    private static final int NONE = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private final IntIntMap nodes = new IntIntMap();
+    private int[] ids = new int[MIN_CAPACITY];
+    private int[] order = new int[MIN_CAPACITY];
+    private long[] start = new long[MIN_CAPACITY];
+    private long[] length = new long[MIN_CAPACITY];
+    private long[] earliestStart = new long[MIN_CAPACITY];
+    private long[] earliestFinish = new long[MIN_CAPACITY];
+    private int[] critical = new int[MIN_CAPACITY];
+    private IntList[] dependsOn = new IntList[MIN_CAPACITY];
+    private IntList[] blocks = new IntList[MIN_CAPACITY];
+    private int[] marks = new int[MIN_CAPACITY];
+    private boolean[] pending = new boolean[MIN_CAPACITY];
+    private int size;
+    private int nextOrder;
+    private int firstOrder;
+    private int epoch;
+
+    private final IntList forward = new IntList();
+    private final IntList backward = new IntList();
+    private long[] queue = new long[MIN_CAPACITY];
+    private int queued;
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean contains(int id) {
+        return nodes.containsKey(id);
+    }
+
+    public synchronized boolean addDependency(Task task, Task dependency) {
+        if (task.getId() == dependency.getId()) {
+            throw new TaskValidationException("Задача не может зависеть от самой себя");
+        }
+        int to = nodeOf(task);
+        int from = nodeOf(dependency);
+        if (isLinked(from, to)) {
+            return false;
+        }
+        if (order[from] > order[to]) {
+            if (isIsolated(from)) {
+                order[from] = --firstOrder;
+            } else if (isIsolated(to)) {
+                order[to] = nextOrder++;
+            } else {
+                reorder(from, to);
+            }
+        }
+        blocks[from].addInt(to);
+        dependsOn[to].addInt(from);
+        enqueue(to);
+        return true;
+    }
+
+    public synchronized boolean removeDependency(int taskId, int dependencyId) {
+        int to = nodes.get(taskId, NONE);
+        int from = nodes.get(dependencyId, NONE);
+        if (to == NONE || from == NONE || !blocks[from].removeInt(to)) {
+            return false;
+        }
+        dependsOn[to].removeInt(from);
+        enqueue(to);
+        dropIfIsolated(taskId);
+        dropIfIsolated(dependencyId);
+        return true;
+    }
+
+    public synchronized void update(Task task) {
+        int node = nodes.get(task.getId(), NONE);
+        if (node == NONE) {
+            return;
+        }
+        long newStart = task.getStartMinute();
+        long newLength = lengthOf(task);
+        if (start[node] == newStart && length[node] == newLength) {
+            return;
+        }
+        start[node] = newStart;
+        length[node] = newLength;
+        enqueue(node);
+    }
+
+    public synchronized void remove(int id) {
+        int node = nodes.get(id, NONE);
+        if (node == NONE) {
+            return;
+        }
+        int[] dependencies = idsOf(dependsOn[node]);
+        int[] dependents = idsOf(blocks[node]);
+        for (int dependency : dependencies) {
+            blocks[nodes.get(dependency, NONE)].removeInt(node);
+        }
+        for (int dependent : dependents) {
+            dependsOn[nodes.get(dependent, NONE)].removeInt(node);
+        }
+        delete(node);
+        for (int dependent : dependents) {
+            enqueue(nodes.get(dependent, NONE));
+        }
+        for (int dependency : dependencies) {
+            dropIfIsolated(dependency);
+        }
+        for (int dependent : dependents) {
+            dropIfIsolated(dependent);
+        }
+    }
+
+    /**
+     * Все ребра графа парами подряд: id задачи, затем id задачи, от которой она зависит.
+     */
+    public synchronized int[] edges() {
+        int count = 0;
+        for (int node = 0; node < size; node++) {
+            count += dependsOn[node].size();
+        }
+        int[] result = new int[count * 2];
+        int position = 0;
+        for (int node = 0; node < size; node++) {
+            IntList links = dependsOn[node];
+            for (int i = 0; i < links.size(); i++) {
+                result[position++] = ids[node];
+                result[position++] = ids[links.getInt(i)];
+            }
+        }
+        return result;
+    }
+
+    public synchronized TaskDependencies describe(Task task) {
+        recompute();
+        int node = nodes.get(task.getId(), NONE);
+        if (node == NONE) {
+            long taskStart = task.getStartMinute();
+            long finish = taskStart == NO_TIME ? NO_TIME : taskStart + lengthOf(task);
+            return new TaskDependencies(task.getId(), List.of(), List.of(), Task.fromEpochMinute(taskStart),
+                    Task.fromEpochMinute(finish), List.of(task.getId()));
+        }
+        return new TaskDependencies(task.getId(), toList(idsOf(dependsOn[node])), toList(idsOf(blocks[node])),
+                Task.fromEpochMinute(earliestStart[node]), Task.fromEpochMinute(earliestFinish[node]),
+                toList(pathTo(node)));
+    }
+
+    public synchronized int[] criticalPath() {
+        recompute();
+        int last = NONE;
+        for (int node = 0; node < size; node++) {
+            if (earliestFinish[node] != NO_TIME && (last == NONE || earliestFinish[node] > earliestFinish[last])) {
+                last = node;
+            }
+        }
+        return last == NONE ? new int[0] : pathTo(last);
+    }
+
+    private boolean isLinked(int from, int to) {
+        return blocks[from].size() <= dependsOn[to].size() ? blocks[from].containsInt(to)
+                : dependsOn[to].containsInt(from);
+    }
+
+    private int nodeOf(Task task) {
+        int node = nodes.get(task.getId(), NONE);
+        if (node != NONE) {
+            return node;
+        }
+        if (size == ids.length) {
+            grow();
+        }
+        if (nextOrder >= Integer.MAX_VALUE - 1 || firstOrder <= Integer.MIN_VALUE + 1) {
+            renumber();
+        }
+        node = size++;
+        nodes.put(task.getId(), node);
+        ids[node] = task.getId();
+        order[node] = nextOrder++;
+        start[node] = task.getStartMinute();
+        length[node] = lengthOf(task);
+        earliestStart[node] = start[node];
+        earliestFinish[node] = start[node] == NO_TIME ? NO_TIME : start[node] + length[node];
+        critical[node] = NONE;
+        dependsOn[node] = new IntList();
+        blocks[node] = new IntList();
+        marks[node] = 0;
+        pending[node] = false;
+        return node;
+    }
+
+    // Ребро from → to нарушает порядок: ищем узлы, достижимые из to с порядком до from, и узлы, из которых
+    // достижим from, с порядком после to. Вторые ставим перед первыми на те же места.
+    private void reorder(int from, int to) {
+        recompute();
+        int lower = order[to];
+        int upper = order[from];
+        nextEpoch();
+        forward.clear();
+        forward.addInt(to);
+        marks[to] = epoch;
+        for (int i = 0; i < forward.size(); i++) {
+            IntList next = blocks[forward.getInt(i)];
+            for (int j = 0; j < next.size(); j++) {
+                int node = next.getInt(j);
+                if (node == from) {
+                    throw new TaskValidationException("Зависимость создает цикл: задача " + ids[from]
+                            + " уже зависит от задачи " + ids[to]);
+                }
+                if (marks[node] != epoch && order[node] < upper) {
+                    marks[node] = epoch;
+                    forward.addInt(node);
+                }
+            }
+        }
+        backward.clear();
+        backward.addInt(from);
+        marks[from] = epoch;
+        for (int i = 0; i < backward.size(); i++) {
+            IntList previous = dependsOn[backward.getInt(i)];
+            for (int j = 0; j < previous.size(); j++) {
+                int node = previous.getInt(j);
+                if (marks[node] != epoch && order[node] > lower) {
+                    marks[node] = epoch;
+                    backward.addInt(node);
+                }
+            }
+        }
+
+        long[] moved = new long[backward.size() + forward.size()];
+        int[] slots = new int[moved.length];
+        int count = 0;
+        for (IntList part : List.of(backward, forward)) {
+            int first = count;
+            for (int i = 0; i < part.size(); i++) {
+                int node = part.getInt(i);
+                slots[count] = order[node];
+                moved[count++] = (long) order[node] << 32 | node;
+            }
+            Arrays.sort(moved, first, count);
+        }
+        Arrays.sort(slots);
+        for (int i = 0; i < count; i++) {
+            order[(int) moved[i]] = slots[i];
+        }
+    }
+
+    private void renumber() {
+        long[] sorted = new long[size];
+        for (int node = 0; node < size; node++) {
+            sorted[node] = (long) order[node] << 32 | node;
+        }
+        Arrays.sort(sorted);
+        for (int i = 0; i < size; i++) {
+            order[(int) sorted[i]] = i;
+        }
+        firstOrder = 0;
+        nextOrder = size;
+    }
+
+    // Изменения только ставят узлы в очередь, а пересчет откладывается до чтения или перестановки узлов,
+    // поэтому серия правок обходит каждый затронутый узел один раз. Очередь упорядочена по топологическому
+    // порядку: узел пересчитывается, когда все его измененные зависимости уже пересчитаны.
+    private void recompute() {
+        while (queued > 0) {
+            int node = dequeue();
+            pending[node] = false;
+            if (!evaluate(node)) {
+                continue;
+            }
+            IntList next = blocks[node];
+            for (int i = 0; i < next.size(); i++) {
+                enqueue(next.getInt(i));
+            }
+        }
+    }
+
+    private boolean evaluate(int node) {
+        long best = start[node];
+        int via = NONE;
+        IntList previous = dependsOn[node];
+        for (int i = 0; i < previous.size(); i++) {
+            int dependency = previous.getInt(i);
+            long finish = earliestFinish[dependency];
+            if (finish != NO_TIME && (finish > best || finish == best && via == NONE)) {
+                best = finish;
+                via = dependency;
+            }
+        }
+        long finish = best == NO_TIME ? NO_TIME : best + length[node];
+        boolean changed = finish != earliestFinish[node];
+        earliestStart[node] = best;
+        earliestFinish[node] = finish;
+        critical[node] = via;
+        return changed;
+    }
+
+    private void enqueue(int node) {
+        if (pending[node]) {
+            return;
+        }
+        pending[node] = true;
+        if (queued == queue.length) {
+            queue = Arrays.copyOf(queue, queued + (queued >> 1));
+        }
+        long key = (long) order[node] << 32 | node;
+        int slot = queued++;
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (queue[parent] <= key) {
+                break;
+            }
+            queue[slot] = queue[parent];
+            slot = parent;
+        }
+        queue[slot] = key;
+    }
+
+    private int dequeue() {
+        long top = queue[0];
+        long key = queue[--queued];
+        int slot = 0;
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= queued) {
+                break;
+            }
+            if (child + 1 < queued && queue[child + 1] < queue[child]) {
+                child++;
+            }
+            if (key <= queue[child]) {
+                break;
+            }
+            queue[slot] = queue[child];
+            slot = child;
+        }
+        queue[slot] = key;
+        return (int) top;
+    }
+
+    private void dropIfIsolated(int id) {
+        int node = nodes.get(id, NONE);
+        if (node != NONE && isIsolated(node)) {
+            delete(node);
+        }
+    }
+
+    private boolean isIsolated(int node) {
+        return dependsOn[node].isEmpty() && blocks[node].isEmpty();
+    }
+
+    // Последний узел переезжает на место удаленного, ссылки соседей на него переписываются.
+    private void delete(int node) {
+        recompute();
+        nodes.remove(ids[node]);
+        int last = --size;
+        if (node != last) {
+            ids[node] = ids[last];
+            order[node] = order[last];
+            start[node] = start[last];
+            length[node] = length[last];
+            earliestStart[node] = earliestStart[last];
+            earliestFinish[node] = earliestFinish[last];
+            critical[node] = critical[last];
+            dependsOn[node] = dependsOn[last];
+            blocks[node] = blocks[last];
+            marks[node] = marks[last];
+            nodes.put(ids[node], node);
+            for (int i = 0; i < dependsOn[node].size(); i++) {
+                IntList links = blocks[dependsOn[node].getInt(i)];
+                links.setInt(links.indexOfInt(last), node);
+            }
+            for (int i = 0; i < blocks[node].size(); i++) {
+                int dependent = blocks[node].getInt(i);
+                IntList links = dependsOn[dependent];
+                links.setInt(links.indexOfInt(last), node);
+                if (critical[dependent] == last) {
+                    critical[dependent] = node;
+                }
+            }
+        }
+        dependsOn[last] = null;
+        blocks[last] = null;
+    }
+
+    private int[] pathTo(int node) {
+        IntList path = new IntList();
+        for (int current = node; current != NONE; current = critical[current]) {
+            path.addInt(ids[current]);
+        }
+        int[] result = new int[path.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = path.getInt(result.length - 1 - i);
+        }
+        return result;
+    }
+
+    private int[] idsOf(IntList links) {
+        int[] result = new int[links.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids[links.getInt(i)];
+        }
+        return result;
+    }
+
+    private void nextEpoch() {
+        if (++epoch == 0) {
+            Arrays.fill(marks, 0);
+            epoch = 1;
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        order = Arrays.copyOf(order, capacity);
+        start = Arrays.copyOf(start, capacity);
+        length = Arrays.copyOf(length, capacity);
+        earliestStart = Arrays.copyOf(earliestStart, capacity);
+        earliestFinish = Arrays.copyOf(earliestFinish, capacity);
+        critical = Arrays.copyOf(critical, capacity);
+        dependsOn = Arrays.copyOf(dependsOn, capacity);
+        blocks = Arrays.copyOf(blocks, capacity);
+        marks = Arrays.copyOf(marks, capacity);
+        pending = Arrays.copyOf(pending, capacity);
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> result = new ArrayList<>(values.length);
+        for (int value : values) {
+            result.add(value);
+        }
+        return result;
+    }
+
+    private static long lengthOf(Task task) {
+        long taskStart = task.getStartMinute();
+        long taskEnd = task.getEndMinute();
+        if (taskStart != NO_TIME && taskEnd != NO_TIME) {
+            return Math.max(0, taskEnd - taskStart);
+        }
+        Duration duration = task.getDuration();
+        return duration == null ? 0 : Math.max(0, duration.toMinutes());
+    }
+}
@@ -0,0 +1,7 @@
+package main.java.taskmanager;
+
+public enum DurabilityPolicy {
+    ASYNC,
+    FSYNC_PER_BATCH,
+    FSYNC_PER_OP
+}
@@ -1,13 +1,17 @@
 package main.java.taskmanager;
 
+import main.java.taskmanager.util.IntIntMap;
+import main.java.taskmanager.util.IntList;
+
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 public class Epic extends Task {
 
-    private List<Integer> subTaskIds = new ArrayList<>();
+    private IntList subTaskIds = new IntList();
     private LocalDateTime endTime;
+    private transient EpicRollup rollup = new EpicRollup();
+    // Позиция каждого id в subTaskIds: отвязка подзадачи ставит на ее место последний id и стоит O(1).
+    private transient IntIntMap positions;
 
     @Override
     public LocalDateTime getEndTime() {
@@ -18,11 +22,82 @@ public class Epic extends Task {
         this.endTime = endTime;
     }
 
+    @Override
+    public long getEndMinute() {
+        return toEpochMinute(endTime);
+    }
+
     public Epic(int id, String name, String description, TaskStatus status) {
         super(id, name, description, status);
     }
 
-    public List<Integer> getSubTaskIds() {
+    public IntList getSubTaskIds() {
         return subTaskIds;
     }
+
+    EpicRollup getRollup() {
+        if (rollup == null) {
+            rollup = new EpicRollup();
+        }
+        return rollup;
+    }
+
+    // Отдельная копия для снимка: менеджер пересчитывает эпик и его список подзадач на месте.
+    Epic copy() {
+        Epic copy = new Epic(getId(), getName(), getDescription(), getStatus());
+        copy.setStartTime(getStartTime());
+        copy.setDuration(getDuration());
+        copy.endTime = endTime;
+        copy.subTaskIds = new IntList(subTaskIds.size());
+        for (int i = 0; i < subTaskIds.size(); i++) {
+            copy.subTaskIds.addInt(subTaskIds.getInt(i));
+        }
+        return copy;
+    }
+
+    void linkSubTask(int subTaskId) {
+        IntIntMap index = positions();
+        if (!index.containsKey(subTaskId)) {
+            index.put(subTaskId, subTaskIds.size());
+            subTaskIds.addInt(subTaskId);
+        }
+    }
+
+    void unlinkSubTask(int subTaskId) {
+        IntIntMap index = positions();
+        int position = index.get(subTaskId, -1);
+        if (position < 0) {
+            return;
+        }
+        index.remove(subTaskId);
+        int last = subTaskIds.size() - 1;
+        if (position != last) {
+            int moved = subTaskIds.getInt(last);
+            subTaskIds.setInt(position, moved);
+            index.put(moved, position);
+        }
+        subTaskIds.remove(last);
+    }
+
+    void clearSubTasks() {
+        subTaskIds.clear();
+        positions = null;
+    }
+
+    void takeLinksFrom(Epic stored) {
+        subTaskIds = stored.getSubTaskIds();
+        positions = stored.positions;
+        rollup = stored.getRollup();
+    }
+
+    // Список мог прийти из JSON или быть изменен через getSubTaskIds(); тогда индекс строится заново.
+    private IntIntMap positions() {
+        if (positions == null || positions.size() != subTaskIds.size()) {
+            positions = new IntIntMap();
+            for (int i = 0; i < subTaskIds.size(); i++) {
+                positions.put(subTaskIds.getInt(i), i);
+            }
+        }
+        return positions;
+    }
 }
@@ -0,0 +1,117 @@
+package main.java.taskmanager;
+
+import main.java.taskmanager.util.IntObjectMap;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * Агрегаты эпика по подзадачам: счетчики статусов, суммарная длительность и мультимножества
+ * времен начала и окончания. Изменение одной подзадачи применяется как разница между ее
+ * прежним и новым вкладом, поэтому пересчет стоит O(log k), а не O(k).
+ */
+class EpicRollup {
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final IntObjectMap<Contribution> contributions = new IntObjectMap<>();
+    private final int[] statusCounts = new int[STATUSES.length];
+    private final TreeMap<LocalDateTime, Integer> starts = new TreeMap<>();
+    private final TreeMap<LocalDateTime, Integer> ends = new TreeMap<>();
+    private Duration totalDuration = Duration.ZERO;
+
+    void put(SubTask subTask) {
+        remove(subTask.getId());
+        Contribution contribution = new Contribution(subTask);
+        contributions.put(subTask.getId(), contribution);
+
+        if (contribution.status != null) {
+            statusCounts[contribution.status.ordinal()]++;
+        }
+        increment(starts, contribution.start);
+        increment(ends, contribution.end);
+        if (contribution.duration != null) {
+            totalDuration = totalDuration.plus(contribution.duration);
+        }
+    }
+
+    void remove(int subTaskId) {
+        Contribution contribution = contributions.remove(subTaskId);
+        if (contribution == null) {
+            return;
+        }
+
+        if (contribution.status != null) {
+            statusCounts[contribution.status.ordinal()]--;
+        }
+        decrement(starts, contribution.start);
+        decrement(ends, contribution.end);
+        if (contribution.duration != null) {
+            totalDuration = totalDuration.minus(contribution.duration);
+        }
+    }
+
+    void clear() {
+        contributions.clear();
+        Arrays.fill(statusCounts, 0);
+        starts.clear();
+        ends.clear();
+        totalDuration = Duration.ZERO;
+    }
+
+    int size() {
+        return contributions.size();
+    }
+
+    int count(TaskStatus status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    TaskStatus status() {
+        if (contributions.isEmpty()) {
+            return TaskStatus.NEW;
+        }
+        if (count(TaskStatus.IN_PROGRESS) > 0) {
+            return TaskStatus.IN_PROGRESS;
+        }
+        if (count(TaskStatus.NEW) > 0) {
+            return TaskStatus.NEW;
+        }
+        return TaskStatus.DONE;
+    }
+
+    void applyTo(Epic epic) {
+        epic.setStatus(status());
+        epic.setStartTime(starts.isEmpty() ? null : starts.firstKey());
+        epic.setEndTime(ends.isEmpty() ? null : ends.lastKey());
+        epic.setDuration(totalDuration.isZero() ? null : totalDuration);
+    }
+
+    private static void increment(TreeMap<LocalDateTime, Integer> multiset, LocalDateTime time) {
+        if (time != null) {
+            multiset.merge(time, 1, Integer::sum);
+        }
+    }
+
+    private static void decrement(TreeMap<LocalDateTime, Integer> multiset, LocalDateTime time) {
+        if (time != null) {
+            multiset.computeIfPresent(time, (key, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private static final class Contribution {
+        final TaskStatus status;
+        final LocalDateTime start;
+        final LocalDateTime end;
+        final Duration duration;
+
+        Contribution(SubTask subTask) {
+            this.status = subTask.getStatus();
+            this.start = subTask.getStartTime();
+            this.end = subTask.getEndTime();
+            this.duration = subTask.getDuration();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package main.java.taskmanager;
+
+public class EventListenerStats {
+
+    private final String name;
+    private final long delivered;
+    private final long dropped;
+    private final long lag;
+    private final long batches;
+    private final long failures;
+
+    public EventListenerStats(String name, long delivered, long dropped, long lag, long batches, long failures) {
+        this.name = name;
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.lag = lag;
+        this.batches = batches;
+        this.failures = failures;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getLag() {
+        return lag;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return "EventListenerStats{" + "name='" + name + '\'' + ", delivered=" + delivered + ", dropped=" + dropped
+                + ", lag=" + lag + ", batches=" + batches + ", failures=" + failures + '}';
+    }
+}
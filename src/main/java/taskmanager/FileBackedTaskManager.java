@@ -1,78 +1,116 @@
 package main.java.taskmanager;
 
+import main.java.taskmanager.util.IntList;
+
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class FileBackedTaskManager extends InMemoryTaskManager {
 
+    private static final String PUT = "PUT";
+    private static final String DELETE = "DELETE";
+    private static final String CLEAR = "CLEAR";
+    private static final String BATCH = "BATCH";
+    private static final String DEPENDENCY = CsvSnapshotLoader.DEPENDENCY;
+    private static final String NO_DEPENDENCY = "UNDEP";
+
     private final File file;
+    private final SnapshotFormat format;
+    private final TaskJournal journal;
+    private final CsvRowCodec rowCodec = new CsvRowCodec();
 
     public FileBackedTaskManager(File file) {
+        this(file, SnapshotFormat.CSV, null);
+    }
+
+    public FileBackedTaskManager(File file, File journalFile) {
+        this(file, journalFile == null ? null : new TaskJournal(journalFile));
+    }
+
+    public FileBackedTaskManager(File file, TaskJournal journal) {
+        this(file, SnapshotFormat.CSV, journal);
+    }
+
+    public FileBackedTaskManager(File file, SnapshotFormat format, TaskJournal journal) {
         super();
         this.file = file;
+        this.format = format;
+        this.journal = journal;
     }
 
     public static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        return loadFromFile(file, (TaskJournal) null);
+    }
 
-        try {
-            String content = Files.readString(file.toPath());
-            String[] lines = content.split("\n");
+    public static FileBackedTaskManager loadFromFile(File file, File journalFile) {
+        return loadFromFile(file, journalFile == null ? null : new TaskJournal(journalFile));
+    }
 
-            for (int i = 1; i < lines.length; i++) {
-                String line = lines[i].trim();
-                if (line.isEmpty()) {
-                    continue;
-                }
+    public static FileBackedTaskManager loadFromFile(File file, TaskJournal journal) {
+        SnapshotFormat format = BinarySnapshot.isBinary(file) ? SnapshotFormat.BINARY : SnapshotFormat.CSV;
+        return loadFromFile(file, format, journal);
+    }
 
-                Task task = manager.fromString(line);
+    public static FileBackedTaskManager loadFromFile(File file, SnapshotFormat format, TaskJournal journal) {
+        return loadFromFile(file, format, journal, null);
+    }
 
-                if (task instanceof SubTask) {
-                    manager.subTasks.put(task.getId(), (SubTask) task);
-                } else if (task instanceof Epic) {
-                    manager.epics.put(task.getId(), (Epic) task);
-                } else {
-                    manager.tasks.put(task.getId(), task);
-                }
+    public static FileBackedTaskManager loadFromFile(File file, SnapshotFormat format, TaskJournal journal,
+                                                     StringPool stringPool) {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, format, journal);
+        manager.setStringPool(stringPool);
 
-                if (task.getId() >= manager.nextId) {
-                    manager.nextId = task.getId() + 1;
-                }
-            }
+        if (journal == null || file.exists()) {
+            manager.readSnapshot();
+        }
 
-            for (SubTask subTask : manager.getAllSubTasks()) {
-                Epic epic = manager.epics.get(subTask.getEpicId());
-                if (epic != null) {
-                    epic.getSubTaskIds().add(subTask.getId());
-                }
-            }
+        if (manager.journal != null) {
+            manager.journal.replayWhile(manager::applyRecord);
+        }
 
-        } catch (IOException e) {
-            throw new ManagerSaveException("Ошибка при загрузке из файла: " + file.getAbsolutePath(), e);
+        manager.restoreLinks();
+        return manager;
+    }
+
+    static FileBackedTaskManager replaySegment(File snapshot, SnapshotFormat format, File segment) {
+        FileBackedTaskManager manager = new FileBackedTaskManager(snapshot, format, null);
+
+        if (snapshot.exists()) {
+            manager.readSnapshot();
         }
+        TaskJournal.replay(segment, manager::applyRecord);
 
+        manager.restoreLinks();
         return manager;
     }
 
     @Override
     public void addTask(Task task) {
         super.addTask(task);
-        save();
+        logPut(task);
     }
 
     @Override
     public void addEpic(Epic epic) {
         super.addEpic(epic);
-        save();
+        logPut(epic);
     }
 
     @Override
     public void addSubTask(SubTask subTask) {
         super.addSubTask(subTask);
-        save();
+        logPut(subTask);
     }
 
     @Override
@@ -93,19 +131,47 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     @Override
     public void updateTask(Task task) {
         super.updateTask(task);
-        save();
+        logPut(task);
     }
 
     @Override
     public void updateEpic(Epic epic) {
         super.updateEpic(epic);
-        save();
+        logPut(epic);
     }
 
     @Override
     public void updateSubTask(SubTask subTask) {
         super.updateSubTask(subTask);
-        save();
+        logPut(subTask);
+    }
+
+    @Override
+    public void addAll(List<? extends Task> items) {
+        super.addAll(items);
+        logPutAll(items);
+    }
+
+    @Override
+    public void updateAll(List<? extends Task> items) {
+        super.updateAll(items);
+        logPutAll(items);
+    }
+
+    @Override
+    public void deleteAll(Collection<Integer> ids) {
+        List<String> records = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            Epic epic = epics.get(id);
+            if (epic != null) {
+                addSubTaskDeletes(epic, records);
+            }
+            TaskType type = tasks.containsKey(id) ? TaskType.TASK
+                    : epic != null ? TaskType.EPIC : TaskType.SUBTASK;
+            records.add(DELETE + "," + type + "," + id);
+        }
+        super.deleteAll(ids);
+        logBatch(records);
     }
 
     @Override
@@ -116,37 +182,43 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     @Override
     public void deleteTaskById(int taskId) {
         super.deleteTaskById(taskId);
-        save();
+        logDelete(TaskType.TASK, taskId);
     }
 
     @Override
     public void deleteEpicById(int epicId) {
+        List<String> records = new ArrayList<>();
+        Epic epic = epics.get(epicId);
+        if (epic != null) {
+            addSubTaskDeletes(epic, records);
+        }
+        records.add(DELETE + "," + TaskType.EPIC + "," + epicId);
         super.deleteEpicById(epicId);
-        save();
+        logBatch(records);
     }
 
     @Override
     public void deleteSubTaskById(int subTaskId) {
         super.deleteSubTaskById(subTaskId);
-        save();
+        logDelete(TaskType.SUBTASK, subTaskId);
     }
 
     @Override
     public void deleteAllTasks() {
         super.deleteAllTasks();
-        save();
+        logClear(TaskType.TASK);
     }
 
     @Override
     public void deleteAllEpics() {
         super.deleteAllEpics();
-        save();
+        logBatch(List.of(CLEAR + "," + TaskType.EPIC, CLEAR + "," + TaskType.SUBTASK));
     }
 
     @Override
     public void deleteAllSubTasks() {
         super.deleteAllSubTasks();
-        save();
+        logClear(TaskType.SUBTASK);
     }
 
     @Override
@@ -164,76 +236,307 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         return super.getSubTaskById(subTaskId);
     }
 
+    @Override
+    public void addDependency(int taskId, int dependencyId) {
+        super.addDependency(taskId, dependencyId);
+        logDependency(DEPENDENCY, taskId, dependencyId);
+    }
+
+    @Override
+    public void removeDependency(int taskId, int dependencyId) {
+        super.removeDependency(taskId, dependencyId);
+        logDependency(NO_DEPENDENCY, taskId, dependencyId);
+    }
+
+    public void checkpoint() {
+        if (journal == null) {
+            save();
+            return;
+        }
+        synchronized (journal.checkpointLock()) {
+            replaceSnapshot(file, format);
+            journal.truncate();
+        }
+    }
+
+    public void awaitDurability() {
+        if (journal != null) {
+            journal.awaitOwnWrites();
+        }
+    }
+
+    public void close() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
     protected void save() {
-        try (FileWriter writer = new FileWriter(file)) {
-            writer.write("id,type,name,status,description,epic\n");
+        writeSnapshot(file, format);
+    }
+
+    // Снимок пишется во временный файл, сбрасывается на диск и атомарно занимает место старого;
+    // после переименования сбрасывается и каталог, иначе при отключении питания имя может откатиться.
+    void replaceSnapshot(File target, SnapshotFormat targetFormat) {
+        File temp = new File(target.getPath() + ".tmp");
+        writeSnapshot(temp, targetFormat);
+        try {
+            try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory(target.getAbsoluteFile().getParentFile().toPath());
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при замене снимка: " + target.getAbsolutePath(), e);
+        }
+    }
 
-            for (Task task : getAllTasks()) {
-                writer.write(toString(task) + "\n");
+    static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Windows не дает открыть каталог как файл; там сброс каталога пропускается.
+            if (!System.getProperty("os.name").startsWith("Windows")) {
+                throw e;
+            }
+        }
+    }
+
+    void writeSnapshot(File target, SnapshotFormat targetFormat) {
+        if (targetFormat == SnapshotFormat.BINARY) {
+            BinarySnapshot.write(target, tasks.values(), epics.values(), subTasks.values(), dependencies.edges());
+            return;
+        }
+
+        CsvRowCodec codec = new CsvRowCodec();
+        try (Writer writer = Files.newBufferedWriter(target.toPath(), StandardCharsets.UTF_8)) {
+            codec.writeHeader(writer);
+
+            for (Task task : tasks.values()) {
+                codec.writeRow(task, writer);
             }
 
-            for (Epic epic : getAllEpics()) {
-                writer.write(toString(epic) + "\n");
+            for (Epic epic : epics.values()) {
+                codec.writeRow(epic, writer);
             }
 
-            for (SubTask subTask : getAllSubTasks()) {
-                writer.write(toString(subTask) + "\n");
+            for (SubTask subTask : subTasks.values()) {
+                codec.writeRow(subTask, writer);
+            }
+
+            int[] edges = dependencies.edges();
+            for (int i = 0; i < edges.length; i += 2) {
+                writer.write(DEPENDENCY + "," + edges[i] + "," + edges[i + 1] + "\n");
             }
 
         } catch (IOException e) {
-            throw new ManagerSaveException("Ошибка при сохранении в файл: " + file.getAbsolutePath(), e);
+            throw new ManagerSaveException("Ошибка при сохранении в файл: " + target.getAbsolutePath(), e);
         }
+    }
 
+    private void readSnapshot() {
+        if (format == SnapshotFormat.BINARY) {
+            BinarySnapshot.read(file, this::putLoaded, this::dependLoaded);
+        } else {
+            CsvSnapshotLoader.load(file, this::putLoaded, this::dependLoaded);
+        }
     }
 
-    private String toString(Task task) {
-        TaskType type;
-        String epicId = "";
+    private void logPut(Task task) {
+        if (journal == null) {
+            save();
+            return;
+        }
+        journal.append(PUT + "," + rowCodec.toRow(task));
+    }
 
+    private void logDelete(TaskType type, int id) {
+        if (journal == null) {
+            save();
+            return;
+        }
+        journal.append(DELETE + "," + type + "," + id);
+    }
+
+    private void logClear(TaskType type) {
+        if (journal == null) {
+            save();
+            return;
+        }
+        journal.append(CLEAR + "," + type);
+    }
+
+    private void logDependency(String kind, int taskId, int dependencyId) {
+        if (journal == null) {
+            save();
+            return;
+        }
+        journal.append(kind + "," + taskId + "," + dependencyId);
+    }
+
+    private void addSubTaskDeletes(Epic epic, List<String> records) {
+        IntList subTaskIds = epic.getSubTaskIds();
+        for (int i = 0; i < subTaskIds.size(); i++) {
+            records.add(DELETE + "," + TaskType.SUBTASK + "," + subTaskIds.getInt(i));
+        }
+    }
+
+    private void logPutAll(List<? extends Task> items) {
+        List<String> records = new ArrayList<>(items.size());
+        for (Task item : items) {
+            records.add(PUT + "," + rowCodec.toRow(item));
+        }
+        logBatch(records);
+    }
+
+    // Пакет пишется одной строкой журнала, чтобы при сбое или ротации не разорваться на части.
+    // Записи внутри идут с префиксом длины: "BATCH,<число записей>,<длина>:<запись><длина>:<запись>...".
+    private void logBatch(List<String> records) {
+        if (journal == null) {
+            save();
+            return;
+        }
+        StringBuilder batch = new StringBuilder(BATCH).append(',').append(records.size()).append(',');
+        for (String record : records) {
+            batch.append(record.length()).append(':').append(record);
+        }
+        journal.append(batch.toString());
+    }
+
+    // Пакет применяется, только если разобраны все его записи и их ровно столько, сколько объявлено;
+    // иначе он отвергается целиком. В пакетах старого формата числа записей нет, и проверяется только
+    // то, что последняя запись заканчивается ровно в конце строки.
+    private boolean applyBatch(String batch) {
+        int position = BATCH.length() + 1;
+        int expected = -1;
+        int digits = position;
+        while (digits < batch.length() && Character.isDigit(batch.charAt(digits))) {
+            digits++;
+        }
+        if (digits > position && digits < batch.length() && batch.charAt(digits) == ',') {
+            expected = Integer.parseInt(batch.substring(position, digits));
+            position = digits + 1;
+        }
+
+        List<Runnable> actions = new ArrayList<>();
+        try {
+            while (position < batch.length()) {
+                int separator = batch.indexOf(':', position);
+                if (separator < 0) {
+                    return false;
+                }
+                int end = separator + 1 + Integer.parseInt(batch.substring(position, separator));
+                if (end > batch.length()) {
+                    return false;
+                }
+                Runnable action = prepare(batch.substring(separator + 1, end));
+                if (action == null) {
+                    return false;
+                }
+                actions.add(action);
+                position = end;
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+        if (expected >= 0 && actions.size() != expected) {
+            return false;
+        }
+        actions.forEach(Runnable::run);
+        return true;
+    }
+
+    private boolean applyRecord(String record) {
+        if (record.startsWith(BATCH + ",")) {
+            return applyBatch(record);
+        }
+        Runnable action = prepare(record);
+        if (action == null) {
+            return false;
+        }
+        action.run();
+        return true;
+    }
+
+    // Разбирает запись, не меняя состояния; вложенный пакет не допускается.
+    private Runnable prepare(String record) {
+        String[] parts = record.split(",", 3);
+
+        switch (parts[0]) {
+            case PUT:
+                Task task = rowCodec.parse(record, PUT.length() + 1);
+                return () -> putLoaded(task);
+            case DELETE:
+                Map<Integer, ? extends Task> store = storeOf(TaskType.valueOf(parts[1]));
+                int id = Integer.parseInt(parts[2]);
+                return () -> {
+                    store.remove(id);
+                    dependencies.remove(id);
+                };
+            case CLEAR:
+                Map<Integer, ? extends Task> cleared = storeOf(TaskType.valueOf(parts[1]));
+                return () -> {
+                    if (dependencies.size() > 0) {
+                        cleared.keySet().forEach(dependencies::remove);
+                    }
+                    cleared.clear();
+                };
+            case DEPENDENCY:
+                int taskId = Integer.parseInt(parts[1]);
+                int dependencyId = Integer.parseInt(parts[2]);
+                return () -> dependLoaded(taskId, dependencyId);
+            case NO_DEPENDENCY:
+                int dependentId = Integer.parseInt(parts[1]);
+                int removedId = Integer.parseInt(parts[2]);
+                return () -> dependencies.removeDependency(dependentId, removedId);
+            case BATCH:
+                return null;
+            default:
+                throw new ManagerSaveException("Неизвестная запись журнала: " + record);
+        }
+    }
+
+    private void putLoaded(Task task) {
+        intern(task);
         if (task instanceof SubTask) {
-            type = TaskType.SUBTASK;
-            epicId = String.valueOf(((SubTask) task).getEpicId());
+            subTasks.put(task.getId(), (SubTask) task);
         } else if (task instanceof Epic) {
-            type = TaskType.EPIC;
+            epics.put(task.getId(), (Epic) task);
         } else {
-            type = TaskType.TASK;
+            tasks.put(task.getId(), task);
         }
 
-        return String.format("%d,%s,%s,%s,%s,%s", task.getId(), type, task.getName(), task.getStatus(), task.getDescription(), epicId);
+        if (task.getId() >= nextId) {
+            nextId = task.getId() + 1;
+        }
     }
 
-    private Task fromString(String value) {
-        String[] parts = value.split(",");
-
-        int id = Integer.parseInt(parts[0]);
-        TaskType type = TaskType.valueOf(parts[1]);
-        String name = parts[2];
-        TaskStatus status = TaskStatus.valueOf(parts[3]);
-        String description = parts[4];
+    // Время узлов графа здесь может быть еще не итоговым: его обновит перестройка индексов после загрузки.
+    private void dependLoaded(int taskId, int dependencyId) {
+        Task task = loadedTask(taskId);
+        Task dependency = loadedTask(dependencyId);
+        if (task != null && dependency != null) {
+            dependencies.addDependency(task, dependency);
+        }
+    }
 
-        Task task;
+    private Task loadedTask(int id) {
+        Task task = tasks.get(id);
+        if (task == null) {
+            task = subTasks.get(id);
+        }
+        return task != null ? task : epics.get(id);
+    }
 
+    private Map<Integer, ? extends Task> storeOf(TaskType type) {
         switch (type) {
-            case TASK:
-                task = new Task(id, name, description, status);
-                task.setId(id);
-                break;
             case EPIC:
-                Epic epic = new Epic(id, name, description, status);
-                epic.setId(id);
-                epic.setStatus(status);
-                task = epic;
-                break;
+                return epics;
             case SUBTASK:
-                int epicId = Integer.parseInt(parts[5]);
-                SubTask subTask = new SubTask(epicId, id, name, description, status);
-                subTask.setId(id);
-                task = subTask;
-                break;
+                return subTasks;
             default:
-                throw new IllegalArgumentException("Неизвестный тип задачи: " + type);
+                return tasks;
         }
-
-        return task;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,241 @@
+package main.java.taskmanager;
+
+import main.java.taskmanager.util.IntIntMap;
+import main.java.taskmanager.util.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Инвертированный индекс по названию и описанию задач. Термы — последовательности букв и цифр
+ * в нижнем регистре, «ё» приводится к «е». Запрос ищет задачи, содержащие все термы; терм
+ * со звездочкой на конце ищется по префиксу. Результаты ранжируются по tf-idf, совпадения
+ * в названии весят больше, чем в описании.
+ * <p>
+ * Префиксный терм раскрывается во все подходящие термы без ограничения: их списки документов
+ * сливаются в один с максимальным весом на документ, поэтому запрос стоит O(суммы их длин) один раз,
+ * а проверка кандидата по этому терму — O(1).
+ */
+public class FullTextIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final TreeMap<String, IntIntMap> postings = new TreeMap<>();
+    private final IntObjectMap<String[]> documentTerms = new IntObjectMap<>();
+
+    public synchronized void put(Task task) {
+        remove(task.getId());
+
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(task.getName(), term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+        tokenize(task.getDescription(), term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        if (weights.isEmpty()) {
+            return;
+        }
+
+        String[] terms = new String[weights.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+            Map.Entry<String, IntIntMap> existing = postings.ceilingEntry(weight.getKey());
+            IntIntMap documents;
+            String term;
+            if (existing != null && existing.getKey().equals(weight.getKey())) {
+                term = existing.getKey();
+                documents = existing.getValue();
+            } else {
+                term = weight.getKey();
+                documents = new IntIntMap();
+                postings.put(term, documents);
+            }
+            documents.put(task.getId(), weight.getValue());
+            terms[i++] = term;
+        }
+        documentTerms.put(task.getId(), terms);
+    }
+
+    public synchronized void remove(int id) {
+        String[] terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            IntIntMap documents = postings.get(term);
+            if (documents != null) {
+                documents.remove(id);
+                if (documents.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        documentTerms.clear();
+    }
+
+    public synchronized int size() {
+        return documentTerms.size();
+    }
+
+    public synchronized int[] search(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Количество результатов должно быть положительным");
+        }
+        List<QueryTerm> terms = parse(query);
+        if (terms.isEmpty()) {
+            return new int[0];
+        }
+        for (QueryTerm term : terms) {
+            if (!expand(term)) {
+                return new int[0];
+            }
+        }
+        terms.sort(Comparator.comparingInt(term -> term.frequency));
+
+        QueryTerm driver = terms.get(0);
+        IntIntMap candidates = driver.documents;
+        double documentCount = documentTerms.size();
+        double driverIdf = idf(documentCount, driver);
+        double[] idfs = new double[terms.size()];
+        for (int i = 1; i < idfs.length; i++) {
+            idfs[i] = idf(documentCount, terms.get(i));
+        }
+        PriorityQueue<Hit> top = new PriorityQueue<>(Hit.WORST_FIRST);
+        candidates.forEach((id, driverWeight) -> {
+            double score = driverWeight * driverIdf;
+            for (int i = 1; i < idfs.length; i++) {
+                int weight = terms.get(i).documents.get(id, 0);
+                if (weight == 0) {
+                    return;
+                }
+                score += weight * idfs[i];
+            }
+            if (top.size() < limit) {
+                top.add(new Hit(id, score));
+                return;
+            }
+            Hit worst = top.peek();
+            if (score > worst.score || score == worst.score && id < worst.id) {
+                top.poll();
+                top.add(new Hit(id, score));
+            }
+        });
+
+        int[] ids = new int[top.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = top.poll().id;
+        }
+        return ids;
+    }
+
+    static void tokenize(String text, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(normalize(c));
+            } else if (token.length() > 0) {
+                sink.accept(token.toString());
+                token.setLength(0);
+            }
+        }
+    }
+
+    private static char normalize(char c) {
+        char lower = Character.toLowerCase(c);
+        return lower == 'ё' ? 'е' : lower;
+    }
+
+    private static double idf(double documentCount, QueryTerm term) {
+        return Math.log(1 + documentCount / term.frequency);
+    }
+
+    private static List<QueryTerm> parse(String query) {
+        List<QueryTerm> terms = new ArrayList<>();
+        if (query == null) {
+            return terms;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= query.length(); i++) {
+            char c = i < query.length() ? query.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(normalize(c));
+            } else if (token.length() > 0) {
+                terms.add(new QueryTerm(token.toString(), c == '*'));
+                token.setLength(0);
+            }
+        }
+        return terms;
+    }
+
+    private boolean expand(QueryTerm term) {
+        if (!term.prefix) {
+            term.documents = postings.get(term.text);
+        } else {
+            IntIntMap merged = null;
+            for (IntIntMap documents : postings.subMap(term.text, true, term.text + Character.MAX_VALUE, false)
+                    .values()) {
+                if (term.documents == null) {
+                    term.documents = documents;
+                    continue;
+                }
+                if (merged == null) {
+                    merged = new IntIntMap();
+                    mergeInto(merged, term.documents);
+                    term.documents = merged;
+                }
+                mergeInto(merged, documents);
+            }
+        }
+        if (term.documents == null) {
+            return false;
+        }
+        term.frequency = term.documents.size();
+        return true;
+    }
+
+    private static void mergeInto(IntIntMap target, IntIntMap documents) {
+        documents.forEach((id, weight) -> {
+            if (weight > target.get(id, 0)) {
+                target.put(id, weight);
+            }
+        });
+    }
+
+    private static final class QueryTerm {
+        final String text;
+        final boolean prefix;
+        IntIntMap documents;
+        int frequency;
+
+        QueryTerm(String text, boolean prefix) {
+            this.text = text;
+            this.prefix = prefix;
+        }
+    }
+
+    private static final class Hit {
+        static final Comparator<Hit> WORST_FIRST = Comparator
+                .comparingDouble((Hit hit) -> hit.score)
+                .thenComparing((first, second) -> Integer.compare(second.id, first.id));
+
+        final int id;
+        final double score;
+
+        Hit(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
@@ -5,12 +5,19 @@ import com.google.gson.GsonBuilder;
 import com.sun.net.httpserver.HttpServer;
 import main.java.taskmanager.adapter.DurationAdapter;
 import main.java.taskmanager.adapter.LocalDateTimeAdapter;
+import main.java.taskmanager.handler.BatchHandler;
+import main.java.taskmanager.handler.EpicHandler;
+import main.java.taskmanager.handler.HistoryHandler;
+import main.java.taskmanager.handler.PrioritizedHandler;
+import main.java.taskmanager.handler.SearchHandler;
+import main.java.taskmanager.handler.SubtaskHandler;
 import main.java.taskmanager.handler.TaskHandler;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.concurrent.Executor;
 
 
 public class HttpTaskServer {
@@ -24,14 +31,21 @@ public class HttpTaskServer {
 
 
     public HttpTaskServer(TaskManager taskManager) throws IOException {
+        this(taskManager, null);
+    }
+
+    public HttpTaskServer(TaskManager taskManager, Executor executor) throws IOException {
         this.taskManager = taskManager;
         this.httpServer = HttpServer.create(new InetSocketAddress(PORT), 0);
+        httpServer.setExecutor(executor);
 
         httpServer.createContext("/tasks", new TaskHandler(taskManager, gson));
-        httpServer.createContext("/subtasks", new TaskHandler(taskManager, gson));
-        httpServer.createContext("/epics", new TaskHandler(taskManager, gson));
-        httpServer.createContext("/history", new TaskHandler(taskManager, gson));
-        httpServer.createContext("/prioritized", new TaskHandler(taskManager, gson));
+        httpServer.createContext("/subtasks", new SubtaskHandler(taskManager, gson));
+        httpServer.createContext("/epics", new EpicHandler(taskManager, gson));
+        httpServer.createContext("/history", new HistoryHandler(taskManager, gson));
+        httpServer.createContext("/prioritized", new PrioritizedHandler(taskManager, gson));
+        httpServer.createContext("/search", new SearchHandler(taskManager, gson));
+        httpServer.createContext("/batch", new BatchHandler(taskManager, gson));
     }
 
     public void start() {
@@ -0,0 +1,130 @@
+package main.java.taskmanager;
+
+import java.util.Arrays;
+
+/**
+ * Id задач каждого типа по возрастанию — для постраничного обхода без построения снимка.
+ * Новые id выдаются по возрастанию и дописываются в конец. Удаленные id остаются на месте с пометкой
+ * и вычищаются, когда их становится больше половины. Страница стоит O(log n + limit) и пропуск помеченных.
+ */
+public class IdOrderIndex {
+
+    private static final TaskType[] TYPES = TaskType.values();
+
+    private final Ids[] byType = new Ids[TYPES.length];
+
+    public IdOrderIndex() {
+        for (int i = 0; i < byType.length; i++) {
+            byType[i] = new Ids();
+        }
+    }
+
+    public synchronized void put(TaskType type, int id) {
+        byType[type.ordinal()].put(id);
+    }
+
+    public synchronized void remove(TaskType type, int id) {
+        byType[type.ordinal()].remove(id);
+    }
+
+    public synchronized void clear(TaskType type) {
+        byType[type.ordinal()] = new Ids();
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < byType.length; i++) {
+            byType[i] = new Ids();
+        }
+    }
+
+    /**
+     * Возвращает не больше {@code count} id типа {@code type}, больших {@code afterId}, по возрастанию.
+     */
+    public synchronized int[] after(TaskType type, int afterId, int count) {
+        return byType[type.ordinal()].after(afterId, count);
+    }
+
+    /**
+     * Отсортированный массив id; удаленный id хранится как {@code ~id} и не меняет порядок поиска.
+     */
+    private static final class Ids {
+        private int[] ids = new int[16];
+        private int size;
+        private int removed;
+
+        void put(int id) {
+            int position = search(id);
+            if (position < size && decode(ids[position]) == id) {
+                if (ids[position] < 0) {
+                    ids[position] = id;
+                    removed--;
+                }
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int position = search(id);
+            if (position == size || ids[position] != id) {
+                return;
+            }
+            ids[position] = ~id;
+            removed++;
+            if (removed > size / 2) {
+                compact();
+            }
+        }
+
+        int[] after(int afterId, int count) {
+            if (afterId == Integer.MAX_VALUE) {
+                return new int[0];
+            }
+            int[] result = new int[Math.min(count, size - removed)];
+            int found = 0;
+            for (int i = search(afterId + 1); i < size && found < result.length; i++) {
+                if (ids[i] >= 0) {
+                    result[found++] = ids[i];
+                }
+            }
+            return found == result.length ? result : Arrays.copyOf(result, found);
+        }
+
+        private int search(int id) {
+            if (size > 0 && decode(ids[size - 1]) < id) {
+                return size;
+            }
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (decode(ids[middle]) < id) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private void compact() {
+            int live = 0;
+            for (int i = 0; i < size; i++) {
+                if (ids[i] >= 0) {
+                    ids[live++] = ids[i];
+                }
+            }
+            size = live;
+            removed = 0;
+        }
+
+        private static int decode(int value) {
+            return value < 0 ? ~value : value;
+        }
+    }
+}
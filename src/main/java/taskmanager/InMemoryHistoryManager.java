@@ -1,9 +1,9 @@
 package main.java.taskmanager;
 
+import main.java.taskmanager.util.IntObjectMap;
+
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class InMemoryHistoryManager implements HistoryManager {
 
@@ -17,7 +17,7 @@ public class InMemoryHistoryManager implements HistoryManager {
         }
     }
 
-    private final Map<Integer, Node> nodeMap = new HashMap<>();
+    private final IntObjectMap<Node> nodeMap = new IntObjectMap<>();
 
     private Node head;
 
@@ -42,8 +42,9 @@ public class InMemoryHistoryManager implements HistoryManager {
 
         int taskId = task.getId();
 
-        if (nodeMap.containsKey(taskId)) {
-            removeNode(nodeMap.get(taskId));
+        Node existing = nodeMap.get(taskId);
+        if (existing != null) {
+            removeNode(existing);
         }
 
         Node newNode = new Node(task);
@@ -1,77 +1,103 @@
 package main.java.taskmanager;
 
+import main.java.taskmanager.exception.NotFoundException;
+import main.java.taskmanager.util.IntList;
+import main.java.taskmanager.util.IntObjectMap;
+import main.java.taskmanager.util.IntSet;
+
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
-import java.util.TreeSet;
-import java.util.stream.Collectors;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class InMemoryTaskManager implements TaskManager {
 
     int nextId = 1;
 
-    protected final Map<Integer, Task> tasks = new HashMap<>();
-    protected final Map<Integer, Epic> epics = new HashMap<>();
-    protected final Map<Integer, SubTask> subTasks = new HashMap<>();
+    protected final Map<Integer, Task> tasks;
+    protected final Map<Integer, Epic> epics;
+    protected final Map<Integer, SubTask> subTasks;
 
-    protected final Set<Task> prioritizedTasks = new TreeSet<>((t1, t2) -> {
-        if (t1.getStartTime() == null && t2.getStartTime() == null) {
-            return Integer.compare(t1.getId(), t2.getId());
-        }
-        if (t1.getStartTime() == null) {
-            return 1;
-        }
-        if (t2.getStartTime() == null) {
-            return -1;
-        }
-        int timeCompare = t1.getStartTime().compareTo(t2.getStartTime());
-        if (timeCompare != 0) {
-            return timeCompare;
-        }
-        return Integer.compare(t1.getId(), t2.getId());
-    });
+    protected final TaskTimeIndex timeIndex = new TaskTimeIndex();
+    protected final StatusIndex statusIndex = new StatusIndex();
+    protected final IdOrderIndex idOrder = new IdOrderIndex();
+    protected final FullTextIndex textIndex = new FullTextIndex();
+    protected final DependencyGraph dependencies = new DependencyGraph();
+
+    private final HistoryManager historyManager;
 
-    private HistoryManager historyManager = Managers.getDefaultHistory();
+    private final String epoch = UUID.randomUUID().toString();
+    private final AtomicLong version = new AtomicLong();
+    private volatile TaskSnapshot snapshot;
+    private volatile boolean snapshotReads;
+    private volatile boolean autoSchedule;
+    private volatile LocalTime workdayStart;
+    private volatile LocalTime workdayEnd;
+    private volatile StringPool stringPool;
+    private volatile TaskEventBus eventBus;
 
     public InMemoryTaskManager() {
+        this(new IntObjectMap<>(), new IntObjectMap<>(), new IntObjectMap<>(), Managers.getDefaultHistory());
+    }
+
+    protected InMemoryTaskManager(Map<Integer, Task> tasks, Map<Integer, Epic> epics, Map<Integer, SubTask> subTasks,
+                                  HistoryManager historyManager) {
+        this.tasks = tasks;
+        this.epics = epics;
+        this.subTasks = subTasks;
         this.historyManager = historyManager;
     }
 
     @Override
     public void addTask(Task task) {
-        task.setId(nextId++);
+        task.setId(generateId());
+        intern(task);
+        reserve(task);
         tasks.put(task.getId(), task);
+        index(TaskType.TASK, task);
+        publish(TaskEventType.CREATED, TaskType.TASK, task.getId(), task);
+        changed();
     }
 
     @Override
     public void addEpic(Epic epic) {
-        epic.setId(nextId++);
+        epic.setId(generateId());
+        intern(epic);
         epics.put(epic.getId(), epic);
+        index(TaskType.EPIC, epic);
+        publish(TaskEventType.CREATED, TaskType.EPIC, epic.getId(), epic);
+        changed();
     }
 
     @Override
     public void addSubTask(SubTask subTask) {
-        subTask.setId(nextId++);
+        Epic epic = existingEpic(subTask.getEpicId());
+        subTask.setId(generateId());
+        intern(subTask);
+        reserve(subTask);
         subTasks.put(subTask.getId(), subTask);
+        index(TaskType.SUBTASK, subTask);
+        publish(TaskEventType.CREATED, TaskType.SUBTASK, subTask.getId(), subTask);
 
-        Integer epicId = subTask.getEpicId();
-        Epic epic = epics.get(epicId);
-
-        List<Integer> subTaskIds = epic.getSubTaskIds();
-
-        Integer subTaskId = subTask.getId();
-        subTaskIds.add(subTaskId);
+        epic.linkSubTask(subTask.getId());
+        epic.getRollup().put(subTask);
 
-        updateEpicStatus(epic);
+        refreshEpic(epic);
+        changed();
     }
 
     @Override
     public List<Task> getAllTasks() {
+        if (snapshotReads) {
+            return getSnapshot().getTasks();
+        }
         List<Task> allTasks = new ArrayList<>();
 
         for (Task t : tasks.values()) {
@@ -83,6 +109,9 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public List<Epic> getAllEpics() {
+        if (snapshotReads) {
+            return getSnapshot().getEpics();
+        }
         List<Epic> allEpics = new ArrayList<>();
 
         for (Epic t : epics.values()) {
@@ -93,6 +122,9 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public List<SubTask> getAllSubTasks() {
+        if (snapshotReads) {
+            return getSnapshot().getSubTasks();
+        }
         List<SubTask> allSubTasks = new ArrayList<>();
 
         for (SubTask t : subTasks.values()) {
@@ -103,24 +135,51 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public void deleteAllTasks() {
+        for (Task task : tasks.values()) {
+            timeIndex.remove(task.getId());
+            textIndex.remove(task.getId());
+            historyManager.remove(task.getId());
+            dependencies.remove(task.getId());
+            publish(TaskEventType.DELETED, TaskType.TASK, task.getId(), null);
+        }
         tasks.clear();
+        statusIndex.clear(TaskType.TASK);
+        idOrder.clear(TaskType.TASK);
+        changed();
     }
 
     @Override
     public void deleteAllEpics() {
+        for (Epic epic : epics.values()) {
+            textIndex.remove(epic.getId());
+            historyManager.remove(epic.getId());
+            dependencies.remove(epic.getId());
+            publish(TaskEventType.DELETED, TaskType.EPIC, epic.getId(), null);
+        }
         epics.clear();
+        statusIndex.clear(TaskType.EPIC);
+        idOrder.clear(TaskType.EPIC);
+        clearSubTasks();
+        changed();
     }
 
     @Override
     public void deleteAllSubTasks() {
-        subTasks.clear();
+        clearSubTasks();
+        for (Epic epic : epics.values()) {
+            epic.clearSubTasks();
+            epic.getRollup().clear();
+            refreshEpic(epic);
+        }
+        changed();
     }
 
     @Override
     public Task getTaskById(int taskId) {
-        if (tasks.containsKey(taskId)) {
-            historyManager.add(tasks.get(taskId));
-            return tasks.get(taskId);
+        Task task = tasks.get(taskId);
+        if (task != null) {
+            historyManager.add(task);
+            return task;
         }
         System.out.println("Задачи с идентификатором " + taskId + " не существует!");
 
@@ -129,9 +188,10 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public Epic getEpicById(int epicId) {
-        if (epics.containsKey(epicId)) {
-            historyManager.add(epics.get(epicId));
-            return epics.get(epicId);
+        Epic epic = epics.get(epicId);
+        if (epic != null) {
+            historyManager.add(epic);
+            return epic;
         }
         System.out.println("Эпика с идентификатором " + epicId + " не существует!");
         return null;
@@ -139,9 +199,10 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public SubTask getSubTaskById(int subTaskId) {
-        if (subTasks.containsKey(subTaskId)) {
-            historyManager.add(subTasks.get(subTaskId));
-            return subTasks.get(subTaskId);
+        SubTask subTask = subTasks.get(subTaskId);
+        if (subTask != null) {
+            historyManager.add(subTask);
+            return subTask;
         }
         System.out.println("Подзадачи с идентификатором " + subTaskId + " не существует!");
         return null;
@@ -149,43 +210,237 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public void deleteTaskById(int taskId) {
-        tasks.remove(taskId);
-
+        if (tasks.remove(taskId) != null) {
+            forget(TaskType.TASK, taskId);
+        }
+        changed();
     }
 
     @Override
     public void deleteEpicById(int epicId) {
-        epics.remove(epicId);
+        Epic removed = epics.remove(epicId);
+        if (removed != null) {
+            forget(TaskType.EPIC, epicId);
+            dropSubTasksOf(removed);
+        }
+        changed();
     }
 
     @Override
     public void deleteSubTaskById(int subTaskId) {
-        subTasks.remove(subTaskId);
-
+        SubTask removed = subTasks.remove(subTaskId);
+        if (removed != null) {
+            forget(TaskType.SUBTASK, subTaskId);
+            Epic epic = epics.get(removed.getEpicId());
+            if (epic != null) {
+                epic.unlinkSubTask(subTaskId);
+                epic.getRollup().remove(subTaskId);
+                refreshEpic(epic);
+            }
+        }
+        changed();
     }
 
 
     @Override
     public void updateTask(Task task) {
+        intern(task);
+        reserve(task);
         tasks.put(task.getId(), task);
-
+        index(TaskType.TASK, task);
+        publish(TaskEventType.UPDATED, TaskType.TASK, task.getId(), task);
+        changed();
     }
 
     @Override
     public void updateEpic(Epic epic) {
+        Epic stored = epics.get(epic.getId());
+        if (stored != null && stored != epic) {
+            epic.takeLinksFrom(stored);
+        }
+        intern(epic);
         epics.put(epic.getId(), epic);
-        updateEpicStatus(epic);
-
+        index(TaskType.EPIC, epic);
+        publish(TaskEventType.UPDATED, TaskType.EPIC, epic.getId(), epic);
+        refreshEpic(epic);
+        changed();
     }
 
     @Override
     public void updateSubTask(SubTask subTask) {
-        if (!subTasks.containsKey(subTask.getId())) {
+        SubTask stored = subTasks.get(subTask.getId());
+        if (stored == null) {
             throw new IllegalArgumentException("Subtask не найден");
         }
+        Epic epic = existingEpic(subTask.getEpicId());
+        intern(subTask);
+        reserve(subTask);
         subTasks.put(subTask.getId(), subTask);
-        Epic epic = epics.get(subTask.getEpicId());
-        updateEpicStatus(epic);
+        index(TaskType.SUBTASK, subTask);
+        publish(TaskEventType.UPDATED, TaskType.SUBTASK, subTask.getId(), subTask);
+
+        if (stored.getEpicId() != subTask.getEpicId()) {
+            Epic previousEpic = epics.get(stored.getEpicId());
+            if (previousEpic != null) {
+                previousEpic.unlinkSubTask(subTask.getId());
+                previousEpic.getRollup().remove(subTask.getId());
+                refreshEpic(previousEpic);
+            }
+            epic.linkSubTask(subTask.getId());
+        }
+        epic.getRollup().put(subTask);
+        refreshEpic(epic);
+        changed();
+    }
+
+    @Override
+    public void addAll(List<? extends Task> items) {
+        for (Task item : items) {
+            if (item instanceof SubTask) {
+                existingEpic(((SubTask) item).getEpicId());
+            }
+        }
+        // Время проверяется уже с новыми id; если пакет отвергнут, id задач и счетчик возвращаются.
+        int firstId = nextId;
+        int[] previousIds = new int[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            previousIds[i] = items.get(i).getId();
+            items.get(i).setId(generateId());
+        }
+        try {
+            reserveAll(items);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < items.size(); i++) {
+                items.get(i).setId(previousIds[i]);
+            }
+            nextId = firstId;
+            throw e;
+        }
+        for (Task item : items) {
+            intern(item);
+        }
+
+        IntSet touched = new IntSet();
+        for (Task item : items) {
+            if (item instanceof SubTask) {
+                SubTask subTask = (SubTask) item;
+                subTasks.put(subTask.getId(), subTask);
+                index(TaskType.SUBTASK, subTask);
+                publish(TaskEventType.CREATED, TaskType.SUBTASK, subTask.getId(), subTask);
+                Epic epic = epics.get(subTask.getEpicId());
+                epic.linkSubTask(subTask.getId());
+                epic.getRollup().put(subTask);
+                touched.add(epic.getId());
+            } else if (item instanceof Epic) {
+                epics.put(item.getId(), (Epic) item);
+                index(TaskType.EPIC, item);
+                publish(TaskEventType.CREATED, TaskType.EPIC, item.getId(), item);
+            } else {
+                tasks.put(item.getId(), item);
+                index(TaskType.TASK, item);
+                publish(TaskEventType.CREATED, TaskType.TASK, item.getId(), item);
+            }
+        }
+        refreshEpics(touched);
+        changed();
+    }
+
+    @Override
+    public void updateAll(List<? extends Task> items) {
+        for (Task item : items) {
+            if (item instanceof SubTask) {
+                if (!subTasks.containsKey(item.getId())) {
+                    throw new NotFoundException("Подзадача не найдена: " + item.getId());
+                }
+                existingEpic(((SubTask) item).getEpicId());
+            } else if (item instanceof Epic ? !epics.containsKey(item.getId()) : !tasks.containsKey(item.getId())) {
+                throw new NotFoundException("Задача не найдена: " + item.getId());
+            }
+        }
+        for (Task item : items) {
+            intern(item);
+        }
+        reserveAll(items);
+
+        IntSet touched = new IntSet();
+        for (Task item : items) {
+            if (item instanceof SubTask) {
+                SubTask subTask = (SubTask) item;
+                SubTask stored = subTasks.put(subTask.getId(), subTask);
+                index(TaskType.SUBTASK, subTask);
+                publish(TaskEventType.UPDATED, TaskType.SUBTASK, subTask.getId(), subTask);
+                if (stored.getEpicId() != subTask.getEpicId()) {
+                    Epic previousEpic = epics.get(stored.getEpicId());
+                    if (previousEpic != null) {
+                        previousEpic.unlinkSubTask(subTask.getId());
+                        previousEpic.getRollup().remove(subTask.getId());
+                        touched.add(previousEpic.getId());
+                    }
+                    epics.get(subTask.getEpicId()).linkSubTask(subTask.getId());
+                }
+                epics.get(subTask.getEpicId()).getRollup().put(subTask);
+                touched.add(subTask.getEpicId());
+            } else if (item instanceof Epic) {
+                Epic epic = (Epic) item;
+                Epic stored = epics.put(epic.getId(), epic);
+                if (stored != epic) {
+                    epic.takeLinksFrom(stored);
+                }
+                index(TaskType.EPIC, epic);
+                publish(TaskEventType.UPDATED, TaskType.EPIC, epic.getId(), epic);
+                touched.add(epic.getId());
+            } else {
+                tasks.put(item.getId(), item);
+                index(TaskType.TASK, item);
+                publish(TaskEventType.UPDATED, TaskType.TASK, item.getId(), item);
+            }
+        }
+        refreshEpics(touched);
+        changed();
+    }
+
+    @Override
+    public void deleteAll(Collection<Integer> ids) {
+        for (int id : ids) {
+            if (!tasks.containsKey(id) && !epics.containsKey(id) && !subTasks.containsKey(id)) {
+                throw new NotFoundException("Задача не найдена: " + id);
+            }
+        }
+
+        IntSet touched = new IntSet();
+        for (int id : ids) {
+            if (tasks.remove(id) != null) {
+                forget(TaskType.TASK, id);
+                continue;
+            }
+            Epic epic = epics.remove(id);
+            if (epic != null) {
+                forget(TaskType.EPIC, id);
+                dropSubTasksOf(epic);
+                continue;
+            }
+            SubTask removed = subTasks.remove(id);
+            if (removed != null) {
+                forget(TaskType.SUBTASK, id);
+                Epic owner = epics.get(removed.getEpicId());
+                if (owner != null) {
+                    owner.unlinkSubTask(id);
+                    owner.getRollup().remove(id);
+                    touched.add(owner.getId());
+                }
+            }
+        }
+        for (int id : touched.toSortedArray()) {
+            Epic epic = epics.get(id);
+            if (epic != null) {
+                refreshEpic(epic);
+            }
+        }
+        changed();
+    }
+
+    protected int generateId() {
+        return nextId++;
     }
 
     public List<Task> getHistory() {
@@ -194,126 +449,400 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public List<Task> getPrioritizedTasks() {
-        return new ArrayList<>(prioritizedTasks);
+        return resolveTimed(timeIndex.orderedIds());
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало интервала должно быть раньше конца");
+        }
+        return resolveTimed(timeIndex.idsStartingBetween(from, to));
+    }
+
+    @Override
+    public LocalDateTime findFreeSlot(LocalDateTime after, Duration duration) {
+        return timeIndex.findFreeSlot(after, duration, workdayStart, workdayEnd);
+    }
+
+    @Override
+    public void addDependency(int taskId, int dependencyId) {
+        dependencies.addDependency(requireAny(taskId), requireAny(dependencyId));
+    }
+
+    @Override
+    public void removeDependency(int taskId, int dependencyId) {
+        dependencies.removeDependency(taskId, dependencyId);
+    }
+
+    @Override
+    public TaskDependencies getDependencies(int taskId) {
+        return dependencies.describe(requireAny(taskId));
+    }
+
+    @Override
+    public List<Task> getCriticalPath() {
+        int[] ids = dependencies.criticalPath();
+        List<Task> path = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            path.add(requireAny(id));
+        }
+        return path;
+    }
+
+    public void setAutoSchedule(boolean autoSchedule) {
+        this.autoSchedule = autoSchedule;
+    }
+
+    public boolean isAutoSchedule() {
+        return autoSchedule;
     }
 
-    protected void updateEpicTime(Epic epic) {
-        List<SubTask> epicSubTasks = epic.getSubTaskIds().stream()
-                .map(subTasks::get)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+    public void setStringPool(StringPool stringPool) {
+        this.stringPool = stringPool;
+    }
+
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
+    public void setEventBus(TaskEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    public TaskEventBus getEventBus() {
+        return eventBus;
+    }
+
+    public void setWorkingHours(LocalTime start, LocalTime end) {
+        if ((start == null) != (end == null) || start != null && !start.isBefore(end)) {
+            throw new IllegalArgumentException("Начало рабочего дня должно быть раньше конца");
+        }
+        this.workdayStart = start;
+        this.workdayEnd = end;
+    }
+
+    @Override
+    public List<Task> getActiveTasks(LocalDateTime at) {
+        if (at == null) {
+            throw new IllegalArgumentException("Не задан момент времени");
+        }
+        return resolveTimed(timeIndex.idsActiveAt(at));
+    }
+
+    public void setSnapshotReads(boolean snapshotReads) {
+        this.snapshotReads = snapshotReads;
+    }
+
+    public boolean isSnapshotReads() {
+        return snapshotReads;
+    }
+
+    @Override
+    public TaskSnapshot getSnapshot() {
+        TaskSnapshot current = currentSnapshot();
+        if (current == null) {
+            current = buildSnapshot(version.get());
+            snapshot = current;
+        }
+        return current;
+    }
 
-        if (epicSubTasks.isEmpty()) {
-            epic.setDuration(null);
-            epic.setStartTime(null);
-            epic.setEndTime(null);
-            return;
+    protected TaskSnapshot currentSnapshot() {
+        TaskSnapshot current = snapshot;
+        return current != null && current.getVersion() == version.get() ? current : null;
+    }
+
+    protected void changed() {
+        version.incrementAndGet();
+    }
+
+    private TaskSnapshot buildSnapshot(long snapshotVersion) {
+        List<Task> taskList = new ArrayList<>(tasks.values());
+        List<Epic> epicList = new ArrayList<>(epics.size());
+        for (Epic epic : epics.values()) {
+            epicList.add(epic.copy());
         }
+        List<SubTask> subTaskList = new ArrayList<>(subTasks.values());
+        taskList.sort(Comparator.comparingInt(Task::getId));
+        epicList.sort(Comparator.comparingInt(Task::getId));
+        subTaskList.sort(Comparator.comparingInt(Task::getId));
+        return new TaskSnapshot(epoch, snapshotVersion, taskList, epicList, subTaskList);
+    }
 
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        return resolve(statusIndex.ids(TaskType.TASK, status), tasks);
+    }
 
-        LocalDateTime epicStart = epicSubTasks.stream()
-                .map(SubTask::getStartTime)
-                .filter(Objects::nonNull)
-                .min(LocalDateTime::compareTo)
-                .orElse(null);
+    @Override
+    public List<Epic> getEpicsByStatus(TaskStatus status) {
+        return resolve(statusIndex.ids(TaskType.EPIC, status), epics);
+    }
+
+    @Override
+    public List<SubTask> getSubTasksByStatus(TaskStatus status) {
+        return resolve(statusIndex.ids(TaskType.SUBTASK, status), subTasks);
+    }
 
+    @Override
+    public List<SubTask> getEpicSubTasks(int epicId, TaskStatus status) {
+        return resolve(statusIndex.epicSubTaskIds(epicId, status), subTasks);
+    }
 
-        LocalDateTime epicEnd = epicSubTasks.stream()
-                .map(SubTask::getEndTime)
-                .filter(Objects::nonNull)
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
+    @Override
+    public List<Task> search(String query, int limit) {
+        int[] ids = textIndex.search(query, limit);
+        List<Task> found = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Task task = findTimed(id);
+            if (task == null) {
+                task = epics.get(id);
+            }
+            if (task != null) {
+                found.add(task);
+            }
+        }
+        return found;
+    }
 
+    @Override
+    public Page<Task> getTasks(int limit, String cursor) {
+        return pageById(TaskType.TASK, tasks, limit, cursor);
+    }
 
-        Duration totalDuration = epicSubTasks.stream()
-                .map(SubTask::getDuration)
-                .filter(Objects::nonNull)
-                .reduce(Duration.ZERO, Duration::plus);
+    @Override
+    public Page<Epic> getEpics(int limit, String cursor) {
+        return pageById(TaskType.EPIC, epics, limit, cursor);
+    }
 
-        epic.setStartTime(epicStart);
-        epic.setEndTime(epicEnd);
-        epic.setDuration(totalDuration.isZero() ? null : totalDuration);
+    @Override
+    public Page<SubTask> getSubTasks(int limit, String cursor) {
+        return pageById(TaskType.SUBTASK, subTasks, limit, cursor);
     }
 
-    protected void updateEpicStatus(Epic epic) {
-        List<Integer> subTaskIds = epic.getSubTaskIds();
+    @Override
+    public Page<Task> getPrioritizedTasks(int limit, String cursor) {
+        Page.checkLimit(limit);
+        LocalDateTime afterStart = null;
+        int afterId = 0;
+        if (cursor != null) {
+            String position = Page.decode(cursor);
+            int separator = position.lastIndexOf('|');
+            try {
+                afterStart = LocalDateTime.parse(position.substring(0, separator));
+                afterId = Integer.parseInt(position.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Некорректный курсор: " + cursor);
+            }
+        }
 
-        if (subTaskIds.isEmpty()) {
-            epic.setStatus(TaskStatus.NEW);
-            return;
+        List<TaskTimeIndex.Slot> slots = timeIndex.slotsAfter(afterStart, afterId, limit + 1);
+        int count = Math.min(limit, slots.size());
+        List<Task> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = findTimed(slots.get(i).id);
+            if (task != null) {
+                items.add(task);
+            }
         }
+        String nextCursor = null;
+        if (slots.size() > limit) {
+            TaskTimeIndex.Slot last = slots.get(limit - 1);
+            nextCursor = Page.encode(Task.fromEpochMinute(last.start) + "|" + last.id);
+        }
+        return new Page<>(items, nextCursor);
+    }
 
-        boolean hasInProgress = false;
-        boolean hasNew = false;
+    private <T extends Task> Page<T> pageById(TaskType type, Map<Integer, T> store, int limit, String cursor) {
+        Page.checkLimit(limit);
+        int afterId = 0;
+        if (cursor != null) {
+            try {
+                afterId = Integer.parseInt(Page.decode(cursor));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Некорректный курсор: " + cursor);
+            }
+        }
 
-        for (Integer itemId : subTaskIds) {
-            SubTask subTask = subTasks.get(itemId);
-            if (subTask == null) continue;
+        int[] ids = idOrder.after(type, afterId, limit + 1);
+        int count = Math.min(limit, ids.length);
+        List<T> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            T task = store.get(ids[i]);
+            if (task != null) {
+                items.add(task);
+            }
+        }
+        String nextCursor = ids.length > limit ? Page.encode(Integer.toString(ids[limit - 1])) : null;
+        return new Page<>(items, nextCursor);
+    }
 
-            TaskStatus status = subTask.getStatus();
-            switch (status) {
-                case IN_PROGRESS:
-                    hasInProgress = true;
-                    break;
-                case NEW:
-                    hasNew = true;
-                    break;
-                case DONE:
-                    break;
+    private static <T extends Task> List<T> resolve(int[] ids, Map<Integer, T> store) {
+        List<T> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            T task = store.get(id);
+            if (task != null) {
+                result.add(task);
             }
         }
+        return result;
+    }
 
-        if (hasInProgress) {
-            epic.setStatus(TaskStatus.IN_PROGRESS);
-        } else if (hasNew) {
-            epic.setStatus(TaskStatus.NEW);
+    private void reserve(Task task) {
+        if (autoSchedule && task.getStartTime() == null && task.getDuration() != null) {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+            timeIndex.reserveFreeSlot(task, now, workdayStart, workdayEnd);
         } else {
-            epic.setStatus(TaskStatus.DONE);
+            timeIndex.reserve(task);
+        }
+    }
+
+    private void reserveAll(List<? extends Task> items) {
+        List<Task> timed = new ArrayList<>(items.size());
+        for (Task item : items) {
+            if (!(item instanceof Epic)) {
+                timed.add(item);
+            }
+        }
+        LocalDateTime autoAfter = autoSchedule ? LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1) : null;
+        timeIndex.reserveAll(timed, autoAfter, workdayStart, workdayEnd);
+    }
+
+    private Epic existingEpic(int epicId) {
+        Epic epic = epics.get(epicId);
+        if (epic == null) {
+            throw new NotFoundException("Эпик не найден: " + epicId);
         }
+        return epic;
     }
 
+    private void refreshEpics(IntSet ids) {
+        for (int id : ids.toSortedArray()) {
+            Epic epic = epics.get(id);
+            if (epic != null) {
+                refreshEpic(epic);
+            }
+        }
+    }
 
-    private void addToPrioritized(Task task) {
-        if (task.getStartTime() != null) {
-            prioritizedTasks.add(task);
+    private List<Task> resolveTimed(int[] ids) {
+        List<Task> found = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Task task = findTimed(id);
+            if (task != null) {
+                found.add(task);
+            }
         }
+        return found;
     }
 
+    private Task findTimed(int id) {
+        Task task = tasks.get(id);
+        return task != null ? task : subTasks.get(id);
+    }
 
-    private void removeFromPrioritized(Task task) {
-        prioritizedTasks.remove(task);
+    private Task requireAny(int id) {
+        Task task = findTimed(id);
+        if (task == null) {
+            task = epics.get(id);
+        }
+        if (task == null) {
+            throw new NotFoundException("Задача не найдена: " + id);
+        }
+        return task;
     }
 
+    protected void restoreLinks() {
+        for (SubTask subTask : subTasks.values()) {
+            Epic epic = epics.get(subTask.getEpicId());
+            if (epic != null) {
+                epic.linkSubTask(subTask.getId());
+                epic.getRollup().put(subTask);
+            }
+        }
+        for (Epic epic : epics.values()) {
+            refreshEpic(epic);
+        }
+        rebuildIndexes();
+    }
 
-    private boolean isTasksOverlap(Task task1, Task task2) {
-        if (task1.getStartTime() == null || task2.getStartTime() == null) {
-            return false;
+    protected void rebuildIndexes() {
+        timeIndex.clear();
+        statusIndex.clear();
+        idOrder.clear();
+        textIndex.clear();
+        for (Task task : tasks.values()) {
+            timeIndex.restore(task);
+            index(TaskType.TASK, task);
         }
-        if (task1.getEndTime() == null || task2.getEndTime() == null) {
-            return false;
+        for (Epic epic : epics.values()) {
+            index(TaskType.EPIC, epic);
         }
+        for (SubTask subTask : subTasks.values()) {
+            timeIndex.restore(subTask);
+            index(TaskType.SUBTASK, subTask);
+        }
+    }
 
+    protected void intern(Task task) {
+        StringPool pool = stringPool;
+        if (pool != null) {
+            pool.intern(task);
+        }
+    }
 
-        return !(task1.getEndTime().isBefore(task2.getStartTime()) ||
-                task1.getEndTime().isEqual(task2.getStartTime()) ||
-                task2.getEndTime().isBefore(task1.getStartTime()) ||
-                task2.getEndTime().isEqual(task1.getStartTime()));
+    private void index(TaskType type, Task task) {
+        statusIndex.put(type, task);
+        idOrder.put(type, task.getId());
+        textIndex.put(task);
+        dependencies.update(task);
     }
 
+    private void forget(TaskType type, int id) {
+        timeIndex.remove(id);
+        statusIndex.remove(id);
+        idOrder.remove(type, id);
+        textIndex.remove(id);
+        historyManager.remove(id);
+        dependencies.remove(id);
+        publish(TaskEventType.DELETED, type, id, null);
+    }
 
-    private void validateTaskTime(Task task) {
-        if (task.getStartTime() == null) {
-            return;
+    private void publish(TaskEventType type, TaskType taskType, int id, Task task) {
+        TaskEventBus bus = eventBus;
+        if (bus != null) {
+            bus.publish(type, taskType, id, task);
         }
+    }
 
-        boolean hasOverlap = prioritizedTasks.stream()
-                .filter(t -> t.getId() != task.getId())
-                .anyMatch(t -> isTasksOverlap(task, t));
+    private void dropSubTasksOf(Epic epic) {
+        IntList ids = epic.getSubTaskIds();
+        for (int i = 0; i < ids.size(); i++) {
+            subTasks.remove(ids.getInt(i));
+            forget(TaskType.SUBTASK, ids.getInt(i));
+        }
+        epic.clearSubTasks();
+        epic.getRollup().clear();
+    }
 
-        if (hasOverlap) {
-            throw new IllegalArgumentException(
-                    "Задача пересекается по времени с существующей задачей"
-            );
+    private void clearSubTasks() {
+        for (SubTask subTask : subTasks.values()) {
+            timeIndex.remove(subTask.getId());
+            textIndex.remove(subTask.getId());
+            historyManager.remove(subTask.getId());
+            dependencies.remove(subTask.getId());
+            publish(TaskEventType.DELETED, TaskType.SUBTASK, subTask.getId(), null);
         }
+        subTasks.clear();
+        statusIndex.clear(TaskType.SUBTASK);
+        idOrder.clear(TaskType.SUBTASK);
+    }
+
+    protected void refreshEpic(Epic epic) {
+        epic.getRollup().applyTo(epic);
+        statusIndex.put(TaskType.EPIC, epic);
+        dependencies.update(epic);
+        publish(TaskEventType.EPIC_ROLLED_UP, TaskType.EPIC, epic.getId(), epic);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+package main.java.taskmanager;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class JournalCompactor implements Closeable {
+
+    private final File snapshot;
+    private final SnapshotFormat format;
+    private final TaskJournal journal;
+
+    private ScheduledExecutorService scheduler;
+    private long compactions;
+    private LocalDateTime lastCompactionTime;
+    private Duration lastReplayDuration = Duration.ZERO;
+    private Duration lastCompactionDuration = Duration.ZERO;
+
+    public JournalCompactor(File snapshot, SnapshotFormat format, TaskJournal journal) {
+        this.snapshot = snapshot;
+        this.format = format;
+        this.journal = journal;
+    }
+
+    public synchronized void start(long periodMillis, long minLogSize) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                if (journal.getSealedFile().exists() || journal.size() >= minLogSize) {
+                    compact();
+                }
+            } catch (ManagerSaveException e) {
+                System.err.println("Ошибка при сжатии журнала: " + e.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized CompactionStats compact() {
+        long started = System.nanoTime();
+        synchronized (journal.checkpointLock()) {
+            File segment = journal.getSealedFile();
+            if (!segment.exists()) {
+                segment = journal.rotate();
+            }
+
+            if (segment.exists()) {
+                long replayStarted = System.nanoTime();
+                FileBackedTaskManager state = FileBackedTaskManager.replaySegment(snapshot, format, segment);
+                lastReplayDuration = Duration.ofNanos(System.nanoTime() - replayStarted);
+
+                // Сегмент удаляется, только когда новый снимок и его имя в каталоге уже на диске.
+                state.replaceSnapshot(snapshot, format);
+                try {
+                    Files.delete(segment.toPath());
+                } catch (IOException e) {
+                    throw new ManagerSaveException("Ошибка при удалении сегмента: " + segment.getAbsolutePath(), e);
+                }
+            }
+        }
+
+        compactions++;
+        lastCompactionTime = LocalDateTime.now();
+        lastCompactionDuration = Duration.ofNanos(System.nanoTime() - started);
+        return getStats();
+    }
+
+    public synchronized CompactionStats getStats() {
+        long logSize = journal.size() + journal.getSealedFile().length();
+        return new CompactionStats(logSize, compactions, lastCompactionTime, lastReplayDuration,
+                lastCompactionDuration);
+    }
+
+    @Override
+    public void close() {
+        ScheduledExecutorService toStop;
+        synchronized (this) {
+            toStop = scheduler;
+            scheduler = null;
+        }
+        if (toStop != null) {
+            toStop.shutdown();
+            try {
+                toStop.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
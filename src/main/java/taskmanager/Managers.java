@@ -1,5 +1,7 @@
 package main.java.taskmanager;
 
+import main.java.taskmanager.util.IntObjectMap;
+
 public final class Managers {
 
     private Managers() {
@@ -9,6 +11,19 @@ public final class Managers {
         return new InMemoryTaskManager();
     }
 
+    public static TaskManager getConcurrent() {
+        return new ConcurrentTaskManager();
+    }
+
+    public static TaskManager getCompact() {
+        return new InMemoryTaskManager(CompactTaskStore.forTasks(), new IntObjectMap<>(), CompactTaskStore.forSubTasks(),
+                getDefaultHistory());
+    }
+
+    public static TaskManager getOffHeap() {
+        return new OffHeapTaskManager();
+    }
+
     public static HistoryManager getDefaultHistory() {
         return new InMemoryHistoryManager();
     }
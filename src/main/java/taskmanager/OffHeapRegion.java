@@ -0,0 +1,96 @@
+package main.java.taskmanager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Растущая область памяти вне кучи: либо прямой буфер, либо файл, отображенный в память.
+ * При росте содержимое сохраняется, новые байты заполнены нулями. Старое отображение
+ * освобождается сборщиком мусора. Размер ограничен 2 ГБ — пределом ByteBuffer.
+ */
+final class OffHeapRegion implements Closeable {
+
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    private final Path file;
+    private final FileChannel channel;
+    private ByteBuffer buffer;
+
+    private OffHeapRegion(Path file, FileChannel channel, ByteBuffer buffer) {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static OffHeapRegion allocate(int size) {
+        return new OffHeapRegion(null, null, ByteBuffer.allocateDirect(size));
+    }
+
+    static OffHeapRegion map(Path file, int minSize) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            long size = Math.max(channel.size(), minSize);
+            if (size > MAX_SIZE) {
+                channel.close();
+                throw new ManagerSaveException("Файл больше 2 ГБ не поддерживается: " + file.toAbsolutePath());
+            }
+            return new OffHeapRegion(file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при открытии файла: " + file.toAbsolutePath(), e);
+        }
+    }
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    int size() {
+        return buffer.capacity();
+    }
+
+    void ensureSize(long required) {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        if (required > MAX_SIZE) {
+            throw new IllegalStateException("Область вне кучи больше 2 ГБ не поддерживается");
+        }
+        int size = (int) Math.min(MAX_SIZE, Math.max(required, buffer.capacity() + (long) (buffer.capacity() >> 1)));
+        if (channel != null) {
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } catch (IOException e) {
+                throw new ManagerSaveException("Ошибка при расширении файла: " + file.toAbsolutePath(), e);
+            }
+            return;
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(size);
+        grown.put(0, buffer, 0, buffer.capacity());
+        buffer = grown;
+    }
+
+    void force() {
+        if (channel != null) {
+            ((MappedByteBuffer) buffer).force();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при закрытии файла: " + file.toAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,537 @@
+package main.java.taskmanager;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Хранилище задач вне кучи Java: записи фиксированной длины, хэш-индекс id → запись и арена строк
+ * лежат в прямых буферах или в файлах, отображенных в память. Объект задачи создается только при чтении,
+ * поэтому менять его после put бесполезно — нужно положить задачу снова.
+ * Запись: id (int), status (byte), startTime в минутах от эпохи (long), duration в минутах (int), epicId (int),
+ * смещения name и description в арене (int). Строка в арене: длина (int), владелец (int, номер записи × 2 + поле,
+ * -1 для мусора) и байты UTF-8. Мусор вычищается сдвигом живых строк, когда его больше половины арены.
+ * Файлы не журналируются: после сбоя до flush или close их содержимое может быть несогласованным.
+ */
+public class OffHeapTaskStore<T extends Task> extends AbstractMap<Integer, T> implements Closeable {
+
+    static final int MAGIC = 0x4B4E4F48;
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 32;
+    private static final int TYPE_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int SLOTS_OFFSET = 16;
+    private static final int ARENA_USED_OFFSET = 20;
+    private static final int GARBAGE_OFFSET = 24;
+
+    private static final int RECORD_SIZE = 32;
+    private static final int ID = 0;
+    private static final int STATUS = 4;
+    private static final int START = 8;
+    private static final int DURATION = 16;
+    private static final int EPIC_ID = 20;
+    private static final int NAME = 24;
+    private static final int DESCRIPTION = 28;
+
+    private static final int SLOT_SIZE = 8;
+    private static final int MIN_SLOTS = 16;
+    private static final float LOAD_FACTOR = 0.7f;
+
+    private static final int STRING_HEADER = 8;
+    private static final int NO_STRING = -1;
+    private static final int GARBAGE_OWNER = -1;
+    private static final int MIN_COMPACTION = 1 << 20;
+    private static final int MIN_ARENA = 1 << 12;
+
+    private static final long NO_TIME = Task.NO_TIME;
+    private static final int NO_DURATION = Integer.MIN_VALUE;
+    private static final byte NO_STATUS = -1;
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final TaskType type;
+    private final OffHeapRegion records;
+    private final OffHeapRegion index;
+    private final OffHeapRegion strings;
+
+    private int size;
+    private int slots;
+    private int arenaUsed;
+    private int garbage;
+
+    private OffHeapTaskStore(TaskType type, OffHeapRegion records, OffHeapRegion index, OffHeapRegion strings) {
+        this.type = type;
+        this.records = records;
+        this.index = index;
+        this.strings = strings;
+
+        ByteBuffer header = records.buffer();
+        if (header.getInt(0) == 0) {
+            slots = MIN_SLOTS;
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(TYPE_OFFSET, type.ordinal());
+            writeHeader();
+            return;
+        }
+        if (header.getInt(0) != MAGIC) {
+            throw new ManagerSaveException("Файл не является хранилищем задач");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new ManagerSaveException("Неподдерживаемая версия хранилища: " + header.getInt(4));
+        }
+        if (header.getInt(TYPE_OFFSET) != type.ordinal()) {
+            throw new ManagerSaveException("Хранилище содержит записи другого типа");
+        }
+        size = header.getInt(SIZE_OFFSET);
+        slots = header.getInt(SLOTS_OFFSET);
+        arenaUsed = header.getInt(ARENA_USED_OFFSET);
+        garbage = header.getInt(GARBAGE_OFFSET);
+        if (index.size() < (long) slots * SLOT_SIZE) {
+            rebuildIndex(slots);
+        }
+    }
+
+    public static OffHeapTaskStore<Task> forTasks() {
+        return allocate(TaskType.TASK);
+    }
+
+    public static OffHeapTaskStore<Epic> forEpics() {
+        return allocate(TaskType.EPIC);
+    }
+
+    public static OffHeapTaskStore<SubTask> forSubTasks() {
+        return allocate(TaskType.SUBTASK);
+    }
+
+    public static OffHeapTaskStore<Task> openTasks(Path directory) {
+        return open(directory, TaskType.TASK);
+    }
+
+    public static OffHeapTaskStore<Epic> openEpics(Path directory) {
+        return open(directory, TaskType.EPIC);
+    }
+
+    public static OffHeapTaskStore<SubTask> openSubTasks(Path directory) {
+        return open(directory, TaskType.SUBTASK);
+    }
+
+    private static <T extends Task> OffHeapTaskStore<T> allocate(TaskType type) {
+        return new OffHeapTaskStore<>(type, OffHeapRegion.allocate(HEADER_SIZE + MIN_SLOTS * RECORD_SIZE),
+                OffHeapRegion.allocate(MIN_SLOTS * SLOT_SIZE), OffHeapRegion.allocate(MIN_ARENA));
+    }
+
+    private static <T extends Task> OffHeapTaskStore<T> open(Path directory, TaskType type) {
+        String name = type.name().toLowerCase(Locale.ROOT);
+        return new OffHeapTaskStore<>(type,
+                OffHeapRegion.map(directory.resolve(name + ".records"), HEADER_SIZE + MIN_SLOTS * RECORD_SIZE),
+                OffHeapRegion.map(directory.resolve(name + ".index"), MIN_SLOTS * SLOT_SIZE),
+                OffHeapRegion.map(directory.resolve(name + ".strings"), MIN_ARENA));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int id) {
+        return find(id) >= 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey((int) (Integer) key);
+    }
+
+    public T get(int id) {
+        int row = find(id);
+        return row < 0 ? null : materialize(row);
+    }
+
+    @Override
+    public T get(Object key) {
+        return key instanceof Integer ? get((int) (Integer) key) : null;
+    }
+
+    public int maxId() {
+        ByteBuffer buffer = records.buffer();
+        int max = 0;
+        for (int row = 0; row < size; row++) {
+            max = Math.max(max, buffer.getInt(recordOffset(row) + ID));
+        }
+        return max;
+    }
+
+    public T put(int id, T task) {
+        if (task == null) {
+            throw new NullPointerException("OffHeapTaskStore не хранит null");
+        }
+        int duration = task.getDuration() == null ? NO_DURATION : Math.toIntExact(task.getDuration().toMinutes());
+        byte[] name = encode(task.getName());
+        byte[] description = encode(task.getDescription());
+
+        int row = find(id);
+        T previous = null;
+        if (row < 0) {
+            if (size + 1 > slots * LOAD_FACTOR) {
+                rebuildIndex(slots << 1);
+            }
+            records.ensureSize(HEADER_SIZE + (long) (size + 1) * RECORD_SIZE);
+            row = size++;
+            ByteBuffer buffer = records.buffer();
+            buffer.putInt(recordOffset(row) + NAME, NO_STRING);
+            buffer.putInt(recordOffset(row) + DESCRIPTION, NO_STRING);
+            link(id, row);
+        } else {
+            previous = materialize(row);
+        }
+
+        ByteBuffer buffer = records.buffer();
+        int offset = recordOffset(row);
+        buffer.putInt(offset + ID, id);
+        buffer.put(offset + STATUS, task.getStatus() == null ? NO_STATUS : (byte) task.getStatus().ordinal());
+        buffer.putLong(offset + START, task.getStartMinute());
+        buffer.putInt(offset + DURATION, duration);
+        buffer.putInt(offset + EPIC_ID, type == TaskType.SUBTASK ? ((SubTask) task).getEpicId() : 0);
+        setString(row, NAME, name);
+        setString(row, DESCRIPTION, description);
+        afterWrite();
+        return previous;
+    }
+
+    @Override
+    public T put(Integer key, T task) {
+        return put((int) key, task);
+    }
+
+    public T remove(int id) {
+        int row = find(id);
+        if (row < 0) {
+            return null;
+        }
+        T removed = materialize(row);
+        setString(row, NAME, null);
+        setString(row, DESCRIPTION, null);
+        unlink(id);
+
+        int last = --size;
+        if (row != last) {
+            ByteBuffer buffer = records.buffer();
+            buffer.put(recordOffset(row), buffer, recordOffset(last), RECORD_SIZE);
+            link(buffer.getInt(recordOffset(row) + ID), row);
+            adopt(buffer.getInt(recordOffset(row) + NAME), row, NAME);
+            adopt(buffer.getInt(recordOffset(row) + DESCRIPTION), row, DESCRIPTION);
+        }
+        afterWrite();
+        return removed;
+    }
+
+    @Override
+    public T remove(Object key) {
+        return key instanceof Integer ? remove((int) (Integer) key) : null;
+    }
+
+    @Override
+    public void clear() {
+        ByteBuffer buffer = index.buffer();
+        for (int offset = 0; offset < slots * SLOT_SIZE; offset += SLOT_SIZE) {
+            buffer.putLong(offset, 0);
+        }
+        size = 0;
+        arenaUsed = 0;
+        garbage = 0;
+        writeHeader();
+    }
+
+    @Override
+    public Collection<T> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new RowIterator<>() {
+                    @Override
+                    T at(int row) {
+                        return materialize(row);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<Integer, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, T>> iterator() {
+                return new RowIterator<>() {
+                    @Override
+                    Entry<Integer, T> at(int row) {
+                        T task = materialize(row);
+                        return new SimpleImmutableEntry<>(task.getId(), task);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public void flush() {
+        writeHeader();
+        records.force();
+        index.force();
+        strings.force();
+    }
+
+    @Override
+    public void close() {
+        writeHeader();
+        records.close();
+        index.close();
+        strings.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private T materialize(int row) {
+        ByteBuffer buffer = records.buffer();
+        int offset = recordOffset(row);
+        int id = buffer.getInt(offset + ID);
+        byte status = buffer.get(offset + STATUS);
+        TaskStatus taskStatus = status == NO_STATUS ? null : STATUSES[status];
+        String name = decode(buffer.getInt(offset + NAME));
+        String description = decode(buffer.getInt(offset + DESCRIPTION));
+
+        Task task;
+        switch (type) {
+            case EPIC:
+                task = new Epic(id, name, description, taskStatus);
+                break;
+            case SUBTASK:
+                task = new SubTask(buffer.getInt(offset + EPIC_ID), id, name, description, taskStatus);
+                break;
+            default:
+                task = new Task(id, name, description, taskStatus);
+        }
+        long start = buffer.getLong(offset + START);
+        if (start != NO_TIME) {
+            task.setStartTime(LocalDateTime.ofEpochSecond(start * 60, 0, ZoneOffset.UTC));
+        }
+        int duration = buffer.getInt(offset + DURATION);
+        if (duration != NO_DURATION) {
+            task.setDuration(Duration.ofMinutes(duration));
+        }
+        return (T) task;
+    }
+
+    private void setString(int row, int field, byte[] bytes) {
+        ByteBuffer buffer = records.buffer();
+        int current = buffer.getInt(recordOffset(row) + field);
+        if (current == NO_STRING ? bytes == null : bytes != null && stored(current, bytes)) {
+            return;
+        }
+        if (current != NO_STRING) {
+            ByteBuffer arena = strings.buffer();
+            arena.putInt(current + 4, GARBAGE_OWNER);
+            garbage += STRING_HEADER + arena.getInt(current);
+        }
+        buffer.putInt(recordOffset(row) + field, bytes == null ? NO_STRING : append(bytes, owner(row, field)));
+    }
+
+    private int append(byte[] bytes, int owner) {
+        strings.ensureSize((long) arenaUsed + STRING_HEADER + bytes.length);
+        ByteBuffer arena = strings.buffer();
+        int offset = arenaUsed;
+        arena.putInt(offset, bytes.length);
+        arena.putInt(offset + 4, owner);
+        arena.put(offset + STRING_HEADER, bytes);
+        arenaUsed += STRING_HEADER + bytes.length;
+        return offset;
+    }
+
+    private void adopt(int ref, int row, int field) {
+        if (ref != NO_STRING) {
+            strings.buffer().putInt(ref + 4, owner(row, field));
+        }
+    }
+
+    private boolean stored(int ref, byte[] bytes) {
+        ByteBuffer arena = strings.buffer();
+        if (arena.getInt(ref) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (arena.get(ref + STRING_HEADER + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int ref) {
+        if (ref == NO_STRING) {
+            return null;
+        }
+        ByteBuffer arena = strings.buffer();
+        byte[] bytes = new byte[arena.getInt(ref)];
+        arena.get(ref + STRING_HEADER, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void afterWrite() {
+        if (garbage > MIN_COMPACTION && garbage > arenaUsed / 2) {
+            compactStrings();
+        }
+        writeHeader();
+    }
+
+    // Живые строки сдвигаются к началу арены по порядку, ссылки в записях находятся через владельца.
+    private void compactStrings() {
+        ByteBuffer arena = strings.buffer();
+        ByteBuffer buffer = records.buffer();
+        int read = 0;
+        int write = 0;
+        while (read < arenaUsed) {
+            int entry = STRING_HEADER + arena.getInt(read);
+            int owner = arena.getInt(read + 4);
+            if (owner != GARBAGE_OWNER) {
+                if (read != write) {
+                    arena.put(write, arena, read, entry);
+                    buffer.putInt(recordOffset(owner >> 1) + ((owner & 1) == 0 ? NAME : DESCRIPTION), write);
+                }
+                write += entry;
+            }
+            read += entry;
+        }
+        arenaUsed = write;
+        garbage = 0;
+    }
+
+    private int find(int id) {
+        ByteBuffer buffer = index.buffer();
+        int mask = slots - 1;
+        int slot = indexOf(id, mask);
+        while (true) {
+            int row = buffer.getInt(slot * SLOT_SIZE + 4);
+            if (row == 0) {
+                return -1;
+            }
+            if (buffer.getInt(slot * SLOT_SIZE) == id) {
+                return row - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // Номер записи хранится со сдвигом на единицу, чтобы нулевая (новая) память означала свободную ячейку.
+    private void link(int id, int row) {
+        ByteBuffer buffer = index.buffer();
+        int mask = slots - 1;
+        int slot = indexOf(id, mask);
+        while (buffer.getInt(slot * SLOT_SIZE + 4) != 0 && buffer.getInt(slot * SLOT_SIZE) != id) {
+            slot = (slot + 1) & mask;
+        }
+        buffer.putInt(slot * SLOT_SIZE, id);
+        buffer.putInt(slot * SLOT_SIZE + 4, row + 1);
+    }
+
+    private void unlink(int id) {
+        ByteBuffer buffer = index.buffer();
+        int mask = slots - 1;
+        int gap = indexOf(id, mask);
+        while (buffer.getInt(gap * SLOT_SIZE) != id) {
+            gap = (gap + 1) & mask;
+        }
+        int next = (gap + 1) & mask;
+        while (buffer.getInt(next * SLOT_SIZE + 4) != 0) {
+            int home = indexOf(buffer.getInt(next * SLOT_SIZE), mask);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                buffer.putLong(gap * SLOT_SIZE, buffer.getLong(next * SLOT_SIZE));
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        buffer.putLong(gap * SLOT_SIZE, 0);
+    }
+
+    private void rebuildIndex(int capacity) {
+        index.ensureSize((long) capacity * SLOT_SIZE);
+        slots = capacity;
+        ByteBuffer buffer = index.buffer();
+        for (int offset = 0; offset < capacity * SLOT_SIZE; offset += SLOT_SIZE) {
+            buffer.putLong(offset, 0);
+        }
+        ByteBuffer recordBuffer = records.buffer();
+        for (int row = 0; row < size; row++) {
+            link(recordBuffer.getInt(recordOffset(row) + ID), row);
+        }
+    }
+
+    private void writeHeader() {
+        ByteBuffer header = records.buffer();
+        header.putInt(SIZE_OFFSET, size);
+        header.putInt(SLOTS_OFFSET, slots);
+        header.putInt(ARENA_USED_OFFSET, arenaUsed);
+        header.putInt(GARBAGE_OFFSET, garbage);
+    }
+
+    private static int indexOf(int id, int mask) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static int recordOffset(int row) {
+        return HEADER_SIZE + row * RECORD_SIZE;
+    }
+
+    private static int owner(int row, int field) {
+        return row << 1 | (field == NAME ? 0 : 1);
+    }
+
+    private abstract class RowIterator<E> implements Iterator<E> {
+        private int row;
+
+        abstract E at(int row);
+
+        @Override
+        public boolean hasNext() {
+            return row < size;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return at(row++);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package main.java.taskmanager;
+
+import java.io.File;
+
+public final class SnapshotConverter {
+
+    private SnapshotConverter() {
+    }
+
+    public static void convert(File source, File target, SnapshotFormat targetFormat) {
+        FileBackedTaskManager manager = FileBackedTaskManager.loadFromFile(source);
+        manager.writeSnapshot(target, targetFormat);
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Использование: SnapshotConverter <исходный файл> <целевой файл> <CSV|BINARY>");
+            System.exit(1);
+        }
+
+        File source = new File(args[0]);
+        File target = new File(args[1]);
+        SnapshotFormat format = SnapshotFormat.valueOf(args[2].toUpperCase());
+
+        long start = System.nanoTime();
+        convert(source, target, format);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Снимок " + source + " сконвертирован в " + format + " за " + elapsed + " мс");
+    }
+}
@@ -0,0 +1,6 @@
+package main.java.taskmanager;
+
+public enum SnapshotFormat {
+    CSV,
+    BINARY
+}
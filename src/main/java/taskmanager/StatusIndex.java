@@ -0,0 +1,133 @@
+package main.java.taskmanager;
+
+import main.java.taskmanager.util.IntList;
+import main.java.taskmanager.util.IntObjectMap;
+import main.java.taskmanager.util.IntSet;
+
+import java.util.Map;
+
+/**
+ * Вторичные индексы по статусу: тип × статус → id и эпик × статус → id подзадач.
+ * Запрос возвращает id, отсортированные по возрастанию, за время, пропорциональное размеру ответа.
+ */
+public class StatusIndex {
+
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final IntSet[][] byTypeAndStatus = new IntSet[TYPES.length][STATUSES.length];
+    private final IntObjectMap<IntSet[]> byEpic = new IntObjectMap<>();
+    private final IntObjectMap<Entry> entries = new IntObjectMap<>();
+
+    public StatusIndex() {
+        for (int type = 0; type < TYPES.length; type++) {
+            for (int status = 0; status < STATUSES.length; status++) {
+                byTypeAndStatus[type][status] = new IntSet();
+            }
+        }
+    }
+
+    public synchronized void put(TaskType type, Task task) {
+        int epicId = type == TaskType.SUBTASK ? ((SubTask) task).getEpicId() : 0;
+        Entry previous = entries.get(task.getId());
+        if (previous != null && previous.type == type && previous.status == task.getStatus()
+                && previous.epicId == epicId) {
+            return;
+        }
+        unlink(task.getId(), previous);
+
+        Entry entry = new Entry(type, task.getStatus(), epicId);
+        entries.put(task.getId(), entry);
+        if (entry.status == null) {
+            return;
+        }
+        byTypeAndStatus[type.ordinal()][entry.status.ordinal()].add(task.getId());
+        if (type == TaskType.SUBTASK) {
+            IntSet[] buckets = byEpic.get(epicId);
+            if (buckets == null) {
+                buckets = new IntSet[STATUSES.length];
+                for (int i = 0; i < buckets.length; i++) {
+                    buckets[i] = new IntSet();
+                }
+                byEpic.put(epicId, buckets);
+            }
+            buckets[entry.status.ordinal()].add(task.getId());
+        }
+    }
+
+    public synchronized void remove(int id) {
+        unlink(id, entries.remove(id));
+    }
+
+    public synchronized void clear(TaskType type) {
+        IntList ids = new IntList();
+        for (Map.Entry<Integer, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().type == type) {
+                ids.addInt(entry.getKey());
+            }
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            remove(ids.getInt(i));
+        }
+    }
+
+    public synchronized void clear() {
+        for (IntSet[] row : byTypeAndStatus) {
+            for (IntSet ids : row) {
+                ids.clear();
+            }
+        }
+        byEpic.clear();
+        entries.clear();
+    }
+
+    public synchronized int[] ids(TaskType type, TaskStatus status) {
+        return byTypeAndStatus[type.ordinal()][status.ordinal()].toSortedArray();
+    }
+
+    public synchronized int count(TaskType type, TaskStatus status) {
+        return byTypeAndStatus[type.ordinal()][status.ordinal()].size();
+    }
+
+    public synchronized int[] epicSubTaskIds(int epicId, TaskStatus status) {
+        IntSet[] buckets = byEpic.get(epicId);
+        return buckets == null ? new int[0] : buckets[status.ordinal()].toSortedArray();
+    }
+
+    private void unlink(int id, Entry entry) {
+        if (entry == null || entry.status == null) {
+            return;
+        }
+        byTypeAndStatus[entry.type.ordinal()][entry.status.ordinal()].remove(id);
+        if (entry.type == TaskType.SUBTASK) {
+            IntSet[] buckets = byEpic.get(entry.epicId);
+            if (buckets != null) {
+                buckets[entry.status.ordinal()].remove(id);
+                if (isEmpty(buckets)) {
+                    byEpic.remove(entry.epicId);
+                }
+            }
+        }
+    }
+
+    private static boolean isEmpty(IntSet[] buckets) {
+        for (IntSet bucket : buckets) {
+            if (!bucket.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Entry {
+        final TaskType type;
+        final TaskStatus status;
+        final int epicId;
+
+        Entry(TaskType type, TaskStatus status, int epicId) {
+            this.type = type;
+            this.status = status;
+            this.epicId = epicId;
+        }
+    }
+}
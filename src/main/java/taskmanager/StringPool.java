@@ -0,0 +1,69 @@
+package main.java.taskmanager;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Пул строк для названий и описаний: одинаковые строки, пришедшие из шаблонов, из файла или из JSON,
+ * хранятся в куче один раз. Таблица фиксированного размера с прямой адресацией по хэшу; ячейка держит
+ * слабую ссылку, поэтому строка, на которую больше никто не ссылается, собирается сборщиком мусора,
+ * а при коллизии старая строка вытесняется новой. Гонка при записи в ячейку приводит лишь к лишнему промаху.
+ */
+public class StringPool {
+
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final WeakReference<String>[] slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public StringPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public StringPool(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Размер пула должен быть от 1 до " + MAX_CAPACITY);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        WeakReference<String>[] table = new WeakReference[size];
+        slots = table;
+        mask = size - 1;
+    }
+
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        int hash = value.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        WeakReference<String> reference = slots[slot];
+        String pooled = reference == null ? null : reference.get();
+        if (value.equals(pooled)) {
+            hits.increment();
+            return pooled;
+        }
+        if (pooled != null) {
+            evictions.increment();
+        }
+        slots[slot] = new WeakReference<>(value);
+        misses.increment();
+        return value;
+    }
+
+    public void intern(Task task) {
+        task.setName(intern(task.getName()));
+        task.setDescription(intern(task.getDescription()));
+    }
+
+    public StringPoolStats getStats() {
+        return new StringPoolStats(slots.length, hits.sum(), misses.sum(), evictions.sum());
+    }
+}
@@ -0,0 +1,43 @@
+package main.java.taskmanager;
+
+public class StringPoolStats {
+
+    private final int capacity;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    public StringPoolStats(int capacity, long hits, long misses, long evictions) {
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "StringPoolStats{" + "capacity=" + capacity + ", hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + ", hitRate=" + getHitRate() + '}';
+    }
+}
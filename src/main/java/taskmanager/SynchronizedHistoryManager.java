@@ -0,0 +1,27 @@
+package main.java.taskmanager;
+
+import java.util.List;
+
+public class SynchronizedHistoryManager implements HistoryManager {
+
+    private final HistoryManager delegate;
+
+    public SynchronizedHistoryManager(HistoryManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        delegate.add(task);
+    }
+
+    @Override
+    public synchronized void remove(int id) {
+        delegate.remove(id);
+    }
+
+    @Override
+    public synchronized List<Task> getHistory() {
+        return delegate.getHistory();
+    }
+}
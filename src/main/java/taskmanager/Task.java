@@ -2,15 +2,21 @@ package main.java.taskmanager;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Objects;
 
 public class Task {
+
+    public static final long NO_TIME = Long.MIN_VALUE;
+
     private int id;
     private String name;
     private String description;
     private TaskStatus status;
     private Duration duration;
     private LocalDateTime startTime;
+    private transient TimeCache time;
+    private transient int hash;
 
     public Task(int id, String name, String description, TaskStatus status) {
         this.id = id;
@@ -30,6 +36,7 @@ public class Task {
 
     public void setId(int id) {
         this.id = id;
+        this.hash = 0;
     }
 
     public String getName() {
@@ -38,6 +45,7 @@ public class Task {
 
     public void setName(String name) {
         this.name = name;
+        this.hash = 0;
     }
 
     public String getDescription() {
@@ -46,6 +54,7 @@ public class Task {
 
     public void setDescription(String description) {
         this.description = description;
+        this.hash = 0;
     }
 
     public TaskStatus getStatus() {
@@ -54,6 +63,7 @@ public class Task {
 
     public void setStatus(TaskStatus status) {
         this.status = status;
+        this.hash = 0;
     }
 
     public Duration getDuration() {
@@ -62,6 +72,7 @@ public class Task {
 
     public void setDuration(Duration duration) {
         this.duration = duration;
+        this.time = null;
     }
 
     public LocalDateTime getStartTime() {
@@ -70,13 +81,36 @@ public class Task {
 
     public void setStartTime(LocalDateTime startTime) {
         this.startTime = startTime;
+        this.time = null;
     }
 
     public LocalDateTime getEndTime() {
-        if (startTime == null || duration == null) {
-            return null;
+        return time().endTime;
+    }
+
+    public long getStartMinute() {
+        return time().startMinute;
+    }
+
+    public long getEndMinute() {
+        return time().endMinute;
+    }
+
+    public static long toEpochMinute(LocalDateTime time) {
+        return time == null ? NO_TIME : Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    public static LocalDateTime fromEpochMinute(long minute) {
+        return minute == NO_TIME ? null : LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private TimeCache time() {
+        TimeCache cached = time;
+        if (cached == null) {
+            cached = new TimeCache(startTime, duration);
+            time = cached;
         }
-        return startTime.plus(duration);
+        return cached;
     }
 
     @Override
@@ -94,6 +128,26 @@ public class Task {
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, description, status);
+        int result = hash;
+        if (result == 0) {
+            result = 31 * (31 * (31 * (31 + id) + Objects.hashCode(name)) + Objects.hashCode(description))
+                    + Objects.hashCode(status);
+            hash = result;
+        }
+        return result;
+    }
+
+    // Производные от времени значения считаются один раз на изменение startTime или duration.
+    // Объект неизменяемый, поэтому его можно безопасно читать из нескольких потоков.
+    private static final class TimeCache {
+        final LocalDateTime endTime;
+        final long startMinute;
+        final long endMinute;
+
+        TimeCache(LocalDateTime startTime, Duration duration) {
+            this.endTime = startTime == null || duration == null ? null : startTime.plus(duration);
+            this.startMinute = toEpochMinute(startTime);
+            this.endMinute = toEpochMinute(endTime);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package main.java.taskmanager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Зависимости задачи и расчет по ним: от каких задач она зависит, какие задачи ждут ее, самое раннее
+ * возможное начало и окончание, а также цепочка задач, которая определяет это начало.
+ */
+public final class TaskDependencies {
+
+    private final int taskId;
+    private final List<Integer> dependsOn;
+    private final List<Integer> blocks;
+    private final LocalDateTime earliestStart;
+    private final LocalDateTime earliestFinish;
+    private final List<Integer> criticalPath;
+
+    TaskDependencies(int taskId, List<Integer> dependsOn, List<Integer> blocks, LocalDateTime earliestStart,
+                     LocalDateTime earliestFinish, List<Integer> criticalPath) {
+        this.taskId = taskId;
+        this.dependsOn = dependsOn;
+        this.blocks = blocks;
+        this.earliestStart = earliestStart;
+        this.earliestFinish = earliestFinish;
+        this.criticalPath = criticalPath;
+    }
+
+    public int getTaskId() {
+        return taskId;
+    }
+
+    public List<Integer> getDependsOn() {
+        return dependsOn;
+    }
+
+    public List<Integer> getBlocks() {
+        return blocks;
+    }
+
+    public LocalDateTime getEarliestStart() {
+        return earliestStart;
+    }
+
+    public LocalDateTime getEarliestFinish() {
+        return earliestFinish;
+    }
+
+    public List<Integer> getCriticalPath() {
+        return criticalPath;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskDependencies{" + "taskId=" + taskId + ", dependsOn=" + dependsOn + ", blocks=" + blocks
+                + ", earliestStart=" + earliestStart + ", earliestFinish=" + earliestFinish
+                + ", criticalPath=" + criticalPath + '}';
+    }
+}
@@ -0,0 +1,54 @@
+package main.java.taskmanager;
+
+/**
+ * Событие изменения в менеджере. Статус фиксируется в момент публикации; task — тот же объект,
+ * что был передан менеджеру или хранится в нем, а не копия, поэтому для удаленных задач он равен null.
+ */
+public class TaskEvent {
+
+    private final long sequence;
+    private final TaskEventType type;
+    private final TaskType taskType;
+    private final int id;
+    private final TaskStatus status;
+    private final Task task;
+
+    public TaskEvent(long sequence, TaskEventType type, TaskType taskType, int id, TaskStatus status, Task task) {
+        this.sequence = sequence;
+        this.type = type;
+        this.taskType = taskType;
+        this.id = id;
+        this.status = status;
+        this.task = task;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public TaskEventType getType() {
+        return type;
+    }
+
+    public TaskType getTaskType() {
+        return taskType;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEvent{" + "sequence=" + sequence + ", type=" + type + ", taskType=" + taskType + ", id=" + id
+                + ", status=" + status + '}';
+    }
+}
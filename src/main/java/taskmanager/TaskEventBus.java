@@ -0,0 +1,199 @@
+package main.java.taskmanager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Шина событий менеджера на кольцевом буфере фиксированного размера. Публикация только кладет событие
+ * в буфер и будит спящих слушателей, поэтому медленный слушатель не тормозит менеджер. Каждый слушатель
+ * читает буфер в своем потоке со своей позиции и получает события пачками. Если слушатель отстал больше
+ * чем на размер буфера, старые события для него перезаписываются и учитываются как потерянные.
+ */
+public class TaskEventBus implements AutoCloseable {
+
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int DEFAULT_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long CLOSE_TIMEOUT_MILLIS = 1000;
+
+    private final TaskEvent[] ring;
+    private final int mask;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private volatile long published;
+    private volatile boolean closed;
+
+    public TaskEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TaskEventBus(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Размер буфера должен быть степенью двойки");
+        }
+        this.ring = new TaskEvent[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public void publish(TaskEventType type, TaskType taskType, Task task) {
+        publish(type, taskType, task.getId(), task);
+    }
+
+    public void publish(TaskEventType type, TaskType taskType, int id, Task task) {
+        synchronized (ring) {
+            long sequence = published;
+            ring[(int) sequence & mask] = new TaskEvent(sequence, type, taskType, id,
+                    task == null ? null : task.getStatus(), task);
+            published = sequence + 1;
+        }
+        for (Subscription subscription : subscriptions.values()) {
+            subscription.wake();
+        }
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public void subscribe(String name, TaskEventListener listener) {
+        subscribe(name, DEFAULT_BATCH, listener);
+    }
+
+    public void subscribe(String name, int maxBatch, TaskEventListener listener) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("Размер пачки должен быть положительным");
+        }
+        if (closed) {
+            throw new IllegalStateException("Шина событий закрыта");
+        }
+        Subscription subscription = new Subscription(name, maxBatch, listener, published);
+        if (subscriptions.putIfAbsent(name, subscription) != null) {
+            throw new IllegalArgumentException("Слушатель " + name + " уже подписан");
+        }
+        subscription.start();
+    }
+
+    public void unsubscribe(String name) {
+        Subscription subscription = subscriptions.remove(name);
+        if (subscription != null) {
+            subscription.stop();
+        }
+    }
+
+    public List<EventListenerStats> getStats() {
+        List<EventListenerStats> stats = new ArrayList<>();
+        for (Subscription subscription : subscriptions.values()) {
+            stats.add(subscription.stats());
+        }
+        stats.sort((first, second) -> first.getName().compareTo(second.getName()));
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (String name : new ArrayList<>(subscriptions.keySet())) {
+            unsubscribe(name);
+        }
+    }
+
+    private final class Subscription {
+        private final String name;
+        private final int maxBatch;
+        private final TaskEventListener listener;
+        private final Thread thread;
+        private volatile long cursor;
+        private volatile boolean waiting;
+        private volatile boolean running = true;
+        private volatile long delivered;
+        private volatile long dropped;
+        private volatile long batches;
+        private volatile long failures;
+
+        Subscription(String name, int maxBatch, TaskEventListener listener, long cursor) {
+            this.name = name;
+            this.maxBatch = maxBatch;
+            this.listener = listener;
+            this.cursor = cursor;
+            this.thread = new Thread(this::run, "task-events-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        // Флаг waiting и счетчик published — volatile: либо издатель увидит, что слушатель спит,
+        // либо слушатель перед сном увидит новое событие.
+        void wake() {
+            if (waiting) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        void stop() {
+            running = false;
+            LockSupport.unpark(thread);
+            if (Thread.currentThread() == thread) {
+                return;
+            }
+            try {
+                thread.join(CLOSE_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        EventListenerStats stats() {
+            return new EventListenerStats(name, delivered, dropped, Math.max(0, published - cursor), batches,
+                    failures);
+        }
+
+        // События, опубликованные до остановки, еще доставляются.
+        private void run() {
+            List<TaskEvent> batch = new ArrayList<>(maxBatch);
+            List<TaskEvent> view = Collections.unmodifiableList(batch);
+            while (true) {
+                long available = published;
+                if (cursor >= available) {
+                    if (!running) {
+                        return;
+                    }
+                    waiting = true;
+                    if (published == cursor && running) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    waiting = false;
+                    continue;
+                }
+
+                long next = Math.max(cursor, available - ring.length);
+                dropped += next - cursor;
+                batch.clear();
+                while (next < available && batch.size() < maxBatch) {
+                    TaskEvent event = ring[(int) next & mask];
+                    if (event == null || event.getSequence() != next) {
+                        break;
+                    }
+                    batch.add(event);
+                    next++;
+                }
+                cursor = next;
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                try {
+                    listener.onEvents(view);
+                } catch (RuntimeException e) {
+                    failures++;
+                }
+                delivered += batch.size();
+                batches++;
+            }
+        }
+    }
+}
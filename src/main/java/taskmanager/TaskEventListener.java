@@ -0,0 +1,13 @@
+package main.java.taskmanager;
+
+import java.util.List;
+
+/**
+ * Слушатель шины событий. Вызывается в отдельном потоке слушателя; список событий переиспользуется
+ * между вызовами, поэтому хранить его после возврата нельзя — только копию.
+ */
+@FunctionalInterface
+public interface TaskEventListener {
+
+    void onEvents(List<TaskEvent> events);
+}
@@ -0,0 +1,8 @@
+package main.java.taskmanager;
+
+public enum TaskEventType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    EPIC_ROLLED_UP
+}
@@ -0,0 +1,494 @@
+package main.java.taskmanager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал изменений с групповой записью. Каждая запись — строка "длина:crc32:содержимое", где длина
+ * и контрольная сумма считаются по байтам UTF-8 содержимого. Строка, оборванная сбоем посреди записи,
+ * или испорченная строка не проходят проверку: чтение останавливается на первой такой записи, и файл
+ * обрезается по ее началу. Строки без заголовка, записанные до появления кадров, читаются как есть.
+ */
+public class TaskJournal implements Closeable {
+
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 10;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 512;
+
+    private final File file;
+    private final File sealedFile;
+    private final DurabilityPolicy policy;
+    private final long flushIntervalNanos;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    private final Object checkpointLock = new Object();
+    private final ThreadLocal<Long> lastAppended = ThreadLocal.withInitial(() -> 0L);
+
+    private List<String> pending = new ArrayList<>();
+    private long pendingSince;
+    private long appendedSeq;
+    private long durableSeq;
+    private boolean flushRequested;
+    private boolean rotateRequested;
+    private long rotateAtSeq;
+    private boolean truncateRequested;
+    private boolean closed;
+    private IOException failure;
+    private Thread flusher;
+
+    private FileChannel channel;
+    private OutputStream writer;
+
+    public TaskJournal(File file) {
+        this(file, DurabilityPolicy.FSYNC_PER_BATCH);
+    }
+
+    public TaskJournal(File file, DurabilityPolicy policy) {
+        this(file, policy, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public TaskJournal(File file, DurabilityPolicy policy, long flushIntervalMillis, int maxBatchSize) {
+        if (flushIntervalMillis <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Интервал и размер пакета должны быть положительными");
+        }
+        this.file = file;
+        this.sealedFile = new File(file.getPath() + ".sealed");
+        this.policy = policy;
+        this.flushIntervalNanos = flushIntervalMillis * 1_000_000L;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    // Снимок и сегменты журнала меняют и checkpoint менеджера, и сжатие; обе операции идут под этой блокировкой.
+    Object checkpointLock() {
+        return checkpointLock;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public File getSealedFile() {
+        return sealedFile;
+    }
+
+    public long size() {
+        return file.length();
+    }
+
+    public DurabilityPolicy getPolicy() {
+        return policy;
+    }
+
+    public long append(String record) {
+        long seq;
+        synchronized (lock) {
+            checkOpen();
+            // Поток записи при пустой очереди спит без срока: первая запись пакета должна его разбудить.
+            boolean first = pending.isEmpty();
+            if (first) {
+                pendingSince = System.nanoTime();
+            }
+            pending.add(record);
+            seq = ++appendedSeq;
+            startFlusher();
+            if (first || policy == DurabilityPolicy.FSYNC_PER_OP || pending.size() >= maxBatchSize) {
+                lock.notifyAll();
+            }
+        }
+        lastAppended.set(seq);
+
+        if (policy == DurabilityPolicy.FSYNC_PER_OP) {
+            awaitDurable(seq);
+        }
+        return seq;
+    }
+
+    public void awaitDurable(long seq) {
+        synchronized (lock) {
+            while (durableSeq < seq) {
+                if (failure != null) {
+                    throw new ManagerSaveException("Ошибка при записи в журнал: " + file.getAbsolutePath(), failure);
+                }
+                if (flusher == null) {
+                    throw new ManagerSaveException("Журнал закрыт: " + file.getAbsolutePath());
+                }
+                // Будим только при смене флага: иначе ожидающие будят друг друга по кругу и не пускают
+                // поток записи к монитору. Пакет, уже взятый в запись, флаг не ускорит, а оставленный флаг
+                // сбросит без ожидания следующий пакет.
+                if (!flushRequested && !pending.isEmpty()) {
+                    flushRequested = true;
+                    lock.notifyAll();
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ManagerSaveException("Ожидание записи в журнал прервано", e);
+                }
+            }
+        }
+    }
+
+    public void awaitOwnWrites() {
+        awaitDurable(lastAppended.get());
+    }
+
+    public void awaitAll() {
+        long seq;
+        synchronized (lock) {
+            seq = appendedSeq;
+        }
+        awaitDurable(seq);
+    }
+
+    public File rotate() {
+        synchronized (lock) {
+            checkOpen();
+            if (sealedFile.exists()) {
+                throw new ManagerSaveException("Предыдущий сегмент журнала ещё не сжат: " + sealedFile.getAbsolutePath());
+            }
+            startFlusher();
+            rotateAtSeq = appendedSeq;
+            rotateRequested = true;
+            lock.notifyAll();
+            while (rotateRequested) {
+                if (failure != null) {
+                    throw new ManagerSaveException("Ошибка при записи в журнал: " + file.getAbsolutePath(), failure);
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ManagerSaveException("Ожидание ротации журнала прервано", e);
+                }
+            }
+        }
+        return sealedFile;
+    }
+
+    public void replay(Consumer<String> consumer) {
+        replayWhile(record -> {
+            consumer.accept(record);
+            return true;
+        });
+    }
+
+    /**
+     * Как {@link #replay(Consumer)}, но запись, которую {@code consumer} отверг, считается оборванной:
+     * чтение сегмента на ней останавливается, и файл обрезается по ее началу.
+     */
+    public void replayWhile(Predicate<String> consumer) {
+        replay(sealedFile, consumer);
+        replay(file, consumer);
+    }
+
+    static void replay(File segment, Predicate<String> consumer) {
+        if (!segment.exists()) {
+            return;
+        }
+        long valid = 0;
+        boolean torn = false;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(segment.toPath()), 1 << 16)) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            while (true) {
+                int next = in.read();
+                if (next != '\n') {
+                    if (next < 0) {
+                        torn = line.size() > 0;
+                        break;
+                    }
+                    line.write(next);
+                    continue;
+                }
+                String record = unframe(line.toByteArray());
+                if (record == null || !record.isBlank() && !consumer.test(record)) {
+                    torn = true;
+                    break;
+                }
+                valid += line.size() + 1;
+                line.reset();
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при чтении журнала: " + segment.getAbsolutePath(), e);
+        }
+        if (torn) {
+            cut(segment, valid);
+        }
+    }
+
+    static byte[] frame(String record) {
+        byte[] payload = record.getBytes(StandardCharsets.UTF_8);
+        byte[] header = (payload.length + ":" + Long.toHexString(checksum(payload, 0, payload.length)) + ":")
+                .getBytes(StandardCharsets.US_ASCII);
+        byte[] framed = new byte[header.length + payload.length + 1];
+        System.arraycopy(header, 0, framed, 0, header.length);
+        System.arraycopy(payload, 0, framed, header.length, payload.length);
+        framed[framed.length - 1] = '\n';
+        return framed;
+    }
+
+    // null — запись оборвана или испорчена.
+    private static String unframe(byte[] line) {
+        if (line.length == 0 || line[0] >= 'A' && line[0] <= 'Z') {
+            return new String(line, StandardCharsets.UTF_8);
+        }
+        int lengthEnd = indexOf(line, ':', 0);
+        int crcEnd = lengthEnd < 0 ? -1 : indexOf(line, ':', lengthEnd + 1);
+        if (crcEnd < 0) {
+            return null;
+        }
+        try {
+            int length = Integer.parseInt(new String(line, 0, lengthEnd, StandardCharsets.US_ASCII));
+            long crc = Long.parseLong(new String(line, lengthEnd + 1, crcEnd - lengthEnd - 1,
+                    StandardCharsets.US_ASCII), 16);
+            int offset = crcEnd + 1;
+            if (line.length - offset != length || checksum(line, offset, length) != crc) {
+                return null;
+            }
+            return new String(line, offset, length, StandardCharsets.UTF_8);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int indexOf(byte[] line, char value, int from) {
+        for (int i = from; i < line.length; i++) {
+            if (line[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return crc.getValue();
+    }
+
+    private static void cut(File segment, long length) {
+        try (FileChannel truncating = FileChannel.open(segment.toPath(), StandardOpenOption.WRITE)) {
+            truncating.truncate(length);
+            truncating.force(true);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при обрезке журнала: " + segment.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Дописывает накопленные записи и удаляет оба сегмента. Как и ротацию, это делает поток записи:
+     * только он работает с открытым файлом журнала.
+     */
+    public void truncate() {
+        synchronized (lock) {
+            checkOpen();
+            startFlusher();
+            truncateRequested = true;
+            lock.notifyAll();
+            while (truncateRequested) {
+                if (failure != null) {
+                    throw new ManagerSaveException("Ошибка при очистке журнала: " + file.getAbsolutePath(), failure);
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ManagerSaveException("Ожидание очистки журнала прервано", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            thread = flusher;
+            lock.notifyAll();
+        }
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (lock) {
+            flusher = null;
+            lock.notifyAll();
+            try {
+                closeWriter();
+            } catch (IOException e) {
+                throw new ManagerSaveException("Ошибка при закрытии журнала: " + file.getAbsolutePath(), e);
+            }
+        }
+    }
+
+    private void runFlusher() {
+        while (true) {
+            List<String> batch;
+            long batchEnd;
+            long rotateAt;
+            boolean truncating;
+            synchronized (lock) {
+                try {
+                    waitForBatch();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (pending.isEmpty() && !rotateRequested && !truncateRequested) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+                batchEnd = appendedSeq;
+                rotateAt = rotateRequested ? rotateAtSeq : -1;
+                truncating = truncateRequested;
+                flushRequested = false;
+            }
+
+            long firstSeq = batchEnd - batch.size() + 1;
+            try {
+                writeBatch(batch, firstSeq, rotateAt);
+                if (truncating) {
+                    closeWriter();
+                    Files.deleteIfExists(file.toPath());
+                    Files.deleteIfExists(sealedFile.toPath());
+                }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (lock) {
+                durableSeq = batchEnd;
+                if (rotateAt >= 0) {
+                    rotateRequested = false;
+                }
+                if (truncating) {
+                    truncateRequested = false;
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void waitForBatch() throws InterruptedException {
+        while (!closed && !rotateRequested && !truncateRequested) {
+            if (pending.isEmpty()) {
+                lock.wait();
+                continue;
+            }
+            if (flushRequested || pending.size() >= maxBatchSize || policy == DurabilityPolicy.FSYNC_PER_OP) {
+                return;
+            }
+            long left = flushIntervalNanos - (System.nanoTime() - pendingSince);
+            if (left <= 0) {
+                return;
+            }
+            lock.wait(left / 1_000_000L, (int) (left % 1_000_000L));
+        }
+    }
+
+    private void writeBatch(List<String> batch, long firstSeq, long rotateAt) throws IOException {
+        boolean sealed = rotateAt < 0;
+        long seq = firstSeq;
+        for (String record : batch) {
+            if (!sealed && seq > rotateAt) {
+                seal();
+                sealed = true;
+            }
+            openWriter();
+            writer.write(frame(record));
+            if (policy == DurabilityPolicy.FSYNC_PER_OP) {
+                writer.flush();
+                channel.force(false);
+                synchronized (lock) {
+                    durableSeq = seq;
+                    lock.notifyAll();
+                }
+            }
+            seq++;
+        }
+
+        if (!sealed) {
+            seal();
+            return;
+        }
+        if (writer != null) {
+            writer.flush();
+            if (policy == DurabilityPolicy.FSYNC_PER_BATCH) {
+                channel.force(false);
+            }
+        }
+    }
+
+    private void seal() throws IOException {
+        if (writer != null) {
+            writer.flush();
+            channel.force(false);
+            closeWriter();
+        }
+        if (file.exists()) {
+            Files.move(file.toPath(), sealedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private void openWriter() throws IOException {
+        if (writer == null) {
+            FileOutputStream out = new FileOutputStream(file, true);
+            channel = out.getChannel();
+            writer = new BufferedOutputStream(out, 1 << 16);
+        }
+    }
+
+    private void startFlusher() {
+        if (flusher == null) {
+            flusher = new Thread(this::runFlusher, "task-journal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            channel = null;
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new ManagerSaveException("Журнал закрыт: " + file.getAbsolutePath());
+        }
+        if (failure != null) {
+            throw new ManagerSaveException("Ошибка при записи в журнал: " + file.getAbsolutePath(), failure);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package main.java.taskmanager;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface TaskManager {
@@ -40,7 +43,47 @@ public interface TaskManager {
 
     void updateSubTask(SubTask subTask);
 
+    void addAll(List<? extends Task> items);
+
+    void updateAll(List<? extends Task> items);
+
+    void deleteAll(Collection<Integer> ids);
+
     List<Task> getHistory();
 
     List<Task> getPrioritizedTasks();
+
+    TaskSnapshot getSnapshot();
+
+    List<Task> getTasksByStatus(TaskStatus status);
+
+    List<Epic> getEpicsByStatus(TaskStatus status);
+
+    List<SubTask> getSubTasksByStatus(TaskStatus status);
+
+    List<SubTask> getEpicSubTasks(int epicId, TaskStatus status);
+
+    List<Task> search(String query, int limit);
+
+    Page<Task> getTasks(int limit, String cursor);
+
+    Page<Epic> getEpics(int limit, String cursor);
+
+    Page<SubTask> getSubTasks(int limit, String cursor);
+
+    Page<Task> getPrioritizedTasks(int limit, String cursor);
+
+    List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to);
+
+    List<Task> getActiveTasks(LocalDateTime at);
+
+    LocalDateTime findFreeSlot(LocalDateTime after, Duration duration);
+
+    void addDependency(int taskId, int dependencyId);
+
+    void removeDependency(int taskId, int dependencyId);
+
+    TaskDependencies getDependencies(int taskId);
+
+    List<Task> getCriticalPath();
 }
@@ -0,0 +1,49 @@
+package main.java.taskmanager;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Неизменяемый срез доски на момент версии {@code version}. Списки отсортированы по id
+ * и не меняются после публикации, поэтому их можно отдавать читателям без копирования.
+ * Эпики в срезе — копии: менеджер пересчитывает статус, время и список подзадач эпика на месте.
+ * Задачи и подзадачи менеджер при изменении заменяет новыми объектами, поэтому они не копируются.
+ * Счетчик версий начинается заново у каждого менеджера, поэтому версию сравнивают вместе с {@code epoch} —
+ * случайным идентификатором экземпляра менеджера.
+ */
+public final class TaskSnapshot {
+
+    private final String epoch;
+    private final long version;
+    private final List<Task> tasks;
+    private final List<Epic> epics;
+    private final List<SubTask> subTasks;
+
+    TaskSnapshot(String epoch, long version, List<Task> tasks, List<Epic> epics, List<SubTask> subTasks) {
+        this.epoch = epoch;
+        this.version = version;
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.epics = Collections.unmodifiableList(epics);
+        this.subTasks = Collections.unmodifiableList(subTasks);
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public List<Epic> getEpics() {
+        return epics;
+    }
+
+    public List<SubTask> getSubTasks() {
+        return subTasks;
+    }
+}
@@ -0,0 +1,376 @@
+package main.java.taskmanager;
+
+import main.java.taskmanager.exception.TaskValidationException;
+import main.java.taskmanager.util.IntList;
+import main.java.taskmanager.util.IntObjectMap;
+import main.java.taskmanager.util.IntSet;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Индекс задач по времени. Хранит слоты (начало, конец, id) в минутах от эпохи, поэтому изменение
+ * объекта задачи снаружи не ломает порядок, а сравнения и проверки пересечений не создают объектов.
+ * Время округляется вниз до минуты — с той же точностью, что в бинарном снимке. Занятые интервалы
+ * не пересекаются между собой, так что проверка новой задачи сводится к сравнению с соседями слева
+ * и справа — O(log n). Свободные промежутки между занятыми интервалами хранятся отдельно, поэтому
+ * поиск окна перескакивает плотно занятые участки целиком.
+ */
+public class TaskTimeIndex {
+
+    private static final long NO_TIME = Task.NO_TIME;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int NO_WORKDAY = -1;
+
+    private static final Comparator<Slot> BY_START = (first, second) -> {
+        int result = Long.compare(first.start, second.start);
+        return result != 0 ? result : Integer.compare(first.id, second.id);
+    };
+
+    private static final Comparator<Slot> BY_INTERVAL = (first, second) -> {
+        int result = Long.compare(first.start, second.start);
+        if (result == 0) {
+            result = Long.compare(first.end, second.end);
+        }
+        return result != 0 ? result : Integer.compare(first.id, second.id);
+    };
+
+    private final NavigableSet<Slot> ordered = new TreeSet<>(BY_START);
+    private final NavigableSet<Slot> busy = new TreeSet<>(BY_INTERVAL);
+    private final NavigableSet<Slot> conflicts = new TreeSet<>(BY_START);
+    private final IntObjectMap<Slot> byId = new IntObjectMap<>();
+    private final NavigableMap<Long, Long> gaps = new TreeMap<>();
+    private final Slot probe = new Slot(0, NO_TIME, NO_TIME);
+
+    public TaskTimeIndex() {
+        gaps.put(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public synchronized boolean hasOverlap(Task task) {
+        long start = task.getStartMinute();
+        long end = task.getEndMinute();
+        return start != NO_TIME && end != NO_TIME && findOverlap(task.getId(), start, end) != null;
+    }
+
+    public synchronized void reserve(Task task) {
+        long start = task.getStartMinute();
+        long end = task.getEndMinute();
+        if (start != NO_TIME && end != NO_TIME) {
+            if (task.getDuration().isNegative()) {
+                throw new TaskValidationException("Продолжительность задачи не может быть отрицательной");
+            }
+            if (findOverlap(task.getId(), start, end) != null) {
+                throw new TaskValidationException("Задача пересекается по времени с существующей задачей");
+            }
+        }
+        Slot current = byId.get(task.getId());
+        if (current != null && current.start == start && current.end == end) {
+            return;
+        }
+        replace(task.getId(), start == NO_TIME ? null : new Slot(task.getId(), start, end));
+    }
+
+    public synchronized void reserveAll(List<? extends Task> items, LocalDateTime autoAfter,
+                                        LocalTime dayStart, LocalTime dayEnd) {
+        IntSet ids = new IntSet();
+        Slot[] previous = new Slot[items.size()];
+        boolean[] auto = new boolean[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            Task item = items.get(i);
+            if (!ids.add(item.getId())) {
+                throw new IllegalArgumentException("Задача " + item.getId() + " встречается в пакете дважды");
+            }
+            previous[i] = byId.get(item.getId());
+            auto[i] = autoAfter != null && item.getStartTime() == null && item.getDuration() != null;
+        }
+
+        for (Task item : items) {
+            replace(item.getId(), null);
+        }
+        try {
+            List<Slot> fixed = new ArrayList<>();
+            for (int i = 0; i < items.size(); i++) {
+                Slot slot = auto[i] ? null : Slot.of(items.get(i));
+                if (slot != null && slot.end != NO_TIME) {
+                    if (items.get(i).getDuration().isNegative()) {
+                        throw new TaskValidationException("Продолжительность задачи не может быть отрицательной");
+                    }
+                    fixed.add(slot);
+                }
+            }
+            fixed.sort(BY_INTERVAL);
+            for (int i = 0; i < fixed.size(); i++) {
+                if (i > 0 && fixed.get(i - 1).end > fixed.get(i).start || findOverlap(fixed.get(i)) != null) {
+                    throw new TaskValidationException("Задача пересекается по времени с существующей задачей");
+                }
+            }
+            for (int i = 0; i < items.size(); i++) {
+                if (!auto[i]) {
+                    replace(items.get(i).getId(), Slot.of(items.get(i)));
+                }
+            }
+            for (int i = 0; i < items.size(); i++) {
+                if (auto[i]) {
+                    reserveFreeSlot(items.get(i), autoAfter, dayStart, dayEnd);
+                }
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < items.size(); i++) {
+                if (auto[i]) {
+                    items.get(i).setStartTime(null);
+                }
+                replace(items.get(i).getId(), null);
+            }
+            for (int i = 0; i < items.size(); i++) {
+                replace(items.get(i).getId(), previous[i]);
+            }
+            throw e;
+        }
+    }
+
+    public synchronized LocalDateTime findFreeSlot(LocalDateTime after, Duration duration,
+                                                   LocalTime dayStart, LocalTime dayEnd) {
+        if (after == null || duration == null || duration.isNegative()) {
+            throw new IllegalArgumentException("Нужны момент начала поиска и неотрицательная продолжительность");
+        }
+        long minutes = ceilMinutes(duration.getSeconds() + (duration.getNano() > 0 ? 1 : 0));
+        int workdayStart = dayStart == null ? NO_WORKDAY : dayStart.toSecondOfDay() / 60;
+        int workdayEnd = dayEnd == null ? NO_WORKDAY : dayEnd.toSecondOfDay() / 60;
+        if (workdayStart != NO_WORKDAY && workdayEnd - workdayStart < minutes) {
+            throw new IllegalArgumentException("Задача не помещается в рабочий день");
+        }
+        long afterSeconds = after.toEpochSecond(ZoneOffset.UTC) + (after.getNano() > 0 ? 1 : 0);
+        long start = fit(ceilMinutes(afterSeconds), minutes, workdayStart, workdayEnd);
+        while (true) {
+            start = firstGap(start, minutes, workdayStart, workdayEnd);
+            long end = start + minutes;
+            Slot conflict = null;
+            for (Slot slot : conflicts.headSet(new Slot(Integer.MAX_VALUE, end, NO_TIME), false)) {
+                if (slot.end > start) {
+                    conflict = slot;
+                    break;
+                }
+            }
+            if (conflict == null) {
+                return Task.fromEpochMinute(start);
+            }
+            start = fit(conflict.end, minutes, workdayStart, workdayEnd);
+        }
+    }
+
+    public synchronized void reserveFreeSlot(Task task, LocalDateTime after, LocalTime dayStart, LocalTime dayEnd) {
+        task.setStartTime(findFreeSlot(after, task.getDuration(), dayStart, dayEnd));
+        replace(task.getId(), Slot.of(task));
+    }
+
+    public synchronized void restore(Task task) {
+        replace(task.getId(), Slot.of(task));
+    }
+
+    public synchronized void remove(int id) {
+        replace(id, null);
+    }
+
+    public synchronized void clear() {
+        ordered.clear();
+        busy.clear();
+        conflicts.clear();
+        byId.clear();
+        gaps.clear();
+        gaps.put(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public synchronized int size() {
+        return ordered.size();
+    }
+
+    public synchronized int[] orderedIds() {
+        int[] ids = new int[ordered.size()];
+        int i = 0;
+        for (Slot slot : ordered) {
+            ids[i++] = slot.id;
+        }
+        return ids;
+    }
+
+    public synchronized int[] idsStartingBetween(LocalDateTime from, LocalDateTime to) {
+        NavigableSet<Slot> window = ordered;
+        if (from != null) {
+            window = window.tailSet(new Slot(Integer.MIN_VALUE, Task.toEpochMinute(from), NO_TIME), true);
+        }
+        if (to != null) {
+            window = window.headSet(new Slot(Integer.MIN_VALUE, Task.toEpochMinute(to), NO_TIME), false);
+        }
+        int[] ids = new int[window.size()];
+        int i = 0;
+        for (Slot slot : window) {
+            ids[i++] = slot.id;
+        }
+        return ids;
+    }
+
+    public synchronized int[] idsActiveAt(LocalDateTime at) {
+        long minute = Task.toEpochMinute(at);
+        IntList ids = new IntList();
+        Slot last = busy.floor(new Slot(Integer.MAX_VALUE, minute, Long.MAX_VALUE));
+        if (last != null && last.end > minute) {
+            ids.addInt(last.id);
+        }
+        for (Slot slot : conflicts.headSet(new Slot(Integer.MAX_VALUE, minute, NO_TIME), true)) {
+            if (slot.end > minute) {
+                ids.addInt(slot.id);
+            }
+        }
+        return ids.toIntArray();
+    }
+
+    public synchronized List<Slot> slotsAfter(LocalDateTime start, int id, int limit) {
+        Iterable<Slot> tail = start == null
+                ? ordered : ordered.tailSet(new Slot(id, Task.toEpochMinute(start), NO_TIME), false);
+        List<Slot> slots = new ArrayList<>(Math.min(limit, ordered.size()));
+        for (Slot slot : tail) {
+            if (slots.size() == limit) {
+                break;
+            }
+            slots.add(slot);
+        }
+        return slots;
+    }
+
+    private void replace(int id, Slot slot) {
+        Slot previous = slot == null ? byId.remove(id) : byId.put(id, slot);
+        if (previous != null) {
+            ordered.remove(previous);
+            if (busy.contains(previous)) {
+                release(previous);
+            }
+            conflicts.remove(previous);
+        }
+        if (slot != null) {
+            ordered.add(slot);
+            if (slot.end == NO_TIME) {
+                return;
+            }
+            if (slot.end < slot.start || findOverlap(slot) != null) {
+                conflicts.add(slot);
+            } else {
+                occupy(slot);
+            }
+        }
+    }
+
+    private void occupy(Slot slot) {
+        Slot before = busy.lower(slot);
+        Slot after = busy.higher(slot);
+        long gapStart = before == null ? Long.MIN_VALUE : before.end;
+        long gapEnd = after == null ? Long.MAX_VALUE : after.start;
+        gaps.remove(gapStart, gapEnd);
+        busy.add(slot);
+        putGap(gapStart, slot.start);
+        putGap(slot.end, gapEnd);
+    }
+
+    private void release(Slot slot) {
+        busy.remove(slot);
+        Slot before = busy.lower(slot);
+        Slot after = busy.higher(slot);
+        long gapStart = before == null ? Long.MIN_VALUE : before.end;
+        long gapEnd = after == null ? Long.MAX_VALUE : after.start;
+        gaps.remove(gapStart, slot.start);
+        gaps.remove(slot.end, gapEnd);
+        putGap(gapStart, gapEnd);
+    }
+
+    private void putGap(long start, long end) {
+        if (start < end) {
+            gaps.put(start, end);
+        }
+    }
+
+    private long firstGap(long start, long duration, int dayStart, int dayEnd) {
+        Map.Entry<Long, Long> gap = gaps.floorEntry(start);
+        if (gap == null || gap.getValue() <= start) {
+            gap = gaps.higherEntry(start);
+        }
+        while (true) {
+            long candidate = fit(Math.max(start, gap.getKey()), duration, dayStart, dayEnd);
+            if (candidate + duration <= gap.getValue()) {
+                return candidate;
+            }
+            gap = gaps.higherEntry(gap.getKey());
+        }
+    }
+
+    private static long fit(long start, long duration, int dayStart, int dayEnd) {
+        if (dayStart == NO_WORKDAY) {
+            return start;
+        }
+        long day = Math.floorDiv(start, MINUTES_PER_DAY) * MINUTES_PER_DAY;
+        if (start - day < dayStart) {
+            return day + dayStart;
+        }
+        if (start - day + duration > dayEnd) {
+            return day + MINUTES_PER_DAY + dayStart;
+        }
+        return start;
+    }
+
+    private static long ceilMinutes(long seconds) {
+        return -Math.floorDiv(-seconds, 60);
+    }
+
+    private Slot findOverlap(Slot slot) {
+        return findOverlap(slot.id, slot.start, slot.end);
+    }
+
+    // Пробный слот переиспользуется: поиск соседей в TreeSet не создает объектов.
+    private Slot findOverlap(int id, long start, long end) {
+        probe.id = id;
+        probe.start = start;
+        probe.end = end;
+
+        Slot before = busy.lower(probe);
+        if (before != null && before.id == id) {
+            before = busy.lower(before);
+        }
+        if (before != null && before.end > start) {
+            return before;
+        }
+
+        Slot after = busy.higher(probe);
+        if (after != null && after.id == id) {
+            after = busy.higher(after);
+        }
+        if (after != null && after.start < end) {
+            return after;
+        }
+        return null;
+    }
+
+    static final class Slot {
+        int id;
+        long start;
+        long end;
+
+        private Slot(int id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+
+        static Slot of(Task task) {
+            long start = task.getStartMinute();
+            return start == NO_TIME ? null : new Slot(task.getId(), start, task.getEndMinute());
+        }
+    }
+}
@@ -2,12 +2,23 @@ package main.java.taskmanager.handler;
 
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import main.java.taskmanager.TaskSnapshot;
+import main.java.taskmanager.TaskStatus;
 
 import java.io.IOException;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
 public class BaseHttpHandler implements HttpHandler {
 
+    protected static final int DEFAULT_PAGE_SIZE = 100;
+    protected static final int MAX_PAGE_SIZE = 1000;
+
     protected void sendText(HttpExchange exchange, String text) throws IOException {
         byte[] response = text.getBytes(StandardCharsets.UTF_8);
         exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
@@ -16,6 +27,18 @@ public class BaseHttpHandler implements HttpHandler {
         exchange.close();
     }
 
+    protected void sendVersioned(HttpExchange exchange, TaskSnapshot snapshot, Supplier<String> body)
+            throws IOException {
+        String tag = "\"" + snapshot.getEpoch() + "-" + snapshot.getVersion() + "\"";
+        exchange.getResponseHeaders().add("ETag", tag);
+        if (tag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        sendText(exchange, body.get());
+    }
+
     protected void sendNotFound(HttpExchange exchange) throws IOException {
         byte[] response = "Объект не найден".getBytes(StandardCharsets.UTF_8);
         exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
@@ -24,6 +47,14 @@ public class BaseHttpHandler implements HttpHandler {
         exchange.close();
     }
 
+    protected void sendBadRequest(HttpExchange exchange, String message) throws IOException {
+        byte[] response = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(400, response.length);
+        exchange.getResponseBody().write(response);
+        exchange.close();
+    }
+
     protected void sendHasInteractions(HttpExchange exchange) throws IOException {
         byte[] response = "Задача пересекается с уже существующими".getBytes(StandardCharsets.UTF_8);
         exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
@@ -32,6 +63,62 @@ public class BaseHttpHandler implements HttpHandler {
         exchange.close();
     }
 
+    protected Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    protected boolean isPaged(Map<String, String> query) {
+        return query.containsKey("limit") || query.containsKey("cursor");
+    }
+
+    protected int parseLimit(Map<String, String> query) {
+        String limit = query.get("limit");
+        if (limit == null || limit.isEmpty()) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(Integer.parseInt(limit), MAX_PAGE_SIZE);
+    }
+
+    protected TaskStatus parseStatus(Map<String, String> query) {
+        String status = query.get("status");
+        if (status == null || status.isEmpty()) {
+            return null;
+        }
+        try {
+            return TaskStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Неизвестный статус: " + status);
+        }
+    }
+
+    protected LocalDateTime parseTime(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректная дата: " + value);
+        }
+    }
+
+    protected String parseCursor(Map<String, String> query) {
+        String cursor = query.get("cursor");
+        return cursor == null || cursor.isEmpty() ? null : cursor;
+    }
+
     @Override
     public void handle(HttpExchange exchange) throws IOException {
 
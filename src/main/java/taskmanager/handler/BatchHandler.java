@@ -0,0 +1,124 @@
+package main.java.taskmanager.handler;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import main.java.taskmanager.Epic;
+import main.java.taskmanager.SubTask;
+import main.java.taskmanager.Task;
+import main.java.taskmanager.TaskManager;
+import main.java.taskmanager.TaskType;
+import main.java.taskmanager.exception.NotFoundException;
+import main.java.taskmanager.exception.TaskValidationException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchHandler extends BaseHttpHandler {
+
+    private final TaskManager taskManager;
+    private final Gson gson;
+
+    public BatchHandler(TaskManager taskManager, Gson gson) {
+        this.taskManager = taskManager;
+        this.gson = gson;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+
+        try {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if ("POST".equals(method)) {
+                handlePost(exchange, body);
+            } else if ("DELETE".equals(method)) {
+                handleDelete(exchange, body);
+            } else {
+                sendNotFound(exchange);
+            }
+        } catch (NotFoundException e) {
+            sendNotFound(exchange);
+        } catch (TaskValidationException e) {
+            sendHasInteractions(exchange);
+        } catch (JsonParseException e) {
+            sendBadRequest(exchange, "Некорректный JSON в теле запроса");
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
+        } catch (Exception e) {
+            exchange.sendResponseHeaders(500, 0);
+            exchange.close();
+        }
+    }
+
+    private void handlePost(HttpExchange exchange, String body) throws IOException {
+        List<Task> items = new ArrayList<>();
+        int created = 0;
+        for (JsonElement element : parseArray(body)) {
+            if (!element.isJsonObject()) {
+                throw new IllegalArgumentException("Элемент пакета должен быть JSON-объектом");
+            }
+            JsonObject object = element.getAsJsonObject();
+            if (!object.has("type")) {
+                throw new IllegalArgumentException("У элемента пакета не указан type");
+            }
+            Task item = gson.fromJson(object, classOf(TaskType.valueOf(object.get("type").getAsString())));
+            if (item.getId() == 0) {
+                created++;
+            }
+            items.add(item);
+        }
+        if (created != 0 && created != items.size()) {
+            throw new IllegalArgumentException("Пакет должен содержать либо только новые, либо только существующие задачи");
+        }
+
+        if (created > 0) {
+            taskManager.addAll(items);
+        } else {
+            taskManager.updateAll(items);
+        }
+        byte[] response = gson.toJson(items).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(201, response.length);
+        exchange.getResponseBody().write(response);
+        exchange.close();
+    }
+
+    private void handleDelete(HttpExchange exchange, String body) throws IOException {
+        JsonArray array = parseArray(body);
+        List<Integer> ids = new ArrayList<>(array.size());
+        for (JsonElement element : array) {
+            if (!element.isJsonPrimitive() || !element.getAsJsonPrimitive().isNumber()) {
+                throw new IllegalArgumentException("Элемент пакета должен быть числом — id задачи");
+            }
+            ids.add(element.getAsInt());
+        }
+        taskManager.deleteAll(ids);
+        sendText(exchange, "Удалено задач: " + ids.size());
+    }
+
+    private static JsonArray parseArray(String body) {
+        JsonElement parsed = JsonParser.parseString(body);
+        if (!parsed.isJsonArray()) {
+            throw new IllegalArgumentException("Тело запроса должно быть JSON-массивом");
+        }
+        return parsed.getAsJsonArray();
+    }
+
+    private static Class<? extends Task> classOf(TaskType type) {
+        switch (type) {
+            case EPIC:
+                return Epic.class;
+            case SUBTASK:
+                return SubTask.class;
+            default:
+                return Task.class;
+        }
+    }
+}
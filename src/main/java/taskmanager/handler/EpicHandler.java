@@ -4,13 +4,17 @@ import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.sun.net.httpserver.HttpExchange;
 import main.java.taskmanager.Epic;
+import main.java.taskmanager.Page;
 import main.java.taskmanager.TaskManager;
+import main.java.taskmanager.TaskSnapshot;
+import main.java.taskmanager.TaskStatus;
 import main.java.taskmanager.exception.NotFoundException;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 public class EpicHandler extends BaseHttpHandler {
 
@@ -44,6 +48,8 @@ public class EpicHandler extends BaseHttpHandler {
             }
         } catch (NotFoundException e) {
             sendNotFound(exchange);
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
         } catch (Exception e) {
             exchange.sendResponseHeaders(500, 0);
             exchange.close();
@@ -51,15 +57,24 @@ public class EpicHandler extends BaseHttpHandler {
     }
 
     private void handleGet(HttpExchange exchange, String[] pathParts) throws IOException {
-        if (pathParts.length == 2) {
-            List<Epic> epics = taskManager.getAllEpics();
-            String response = gson.toJson(epics);
-            sendText(exchange, response);
+        Map<String, String> query = parseQuery(exchange);
+        TaskStatus status = parseStatus(query);
+        if (pathParts.length == 2 && status != null) {
+            sendText(exchange, gson.toJson(taskManager.getEpicsByStatus(status)));
+        } else if (pathParts.length == 2 && isPaged(query)) {
+            Page<Epic> page = taskManager.getEpics(parseLimit(query), parseCursor(query));
+            sendText(exchange, gson.toJson(page));
+        } else if (pathParts.length == 2) {
+            TaskSnapshot snapshot = taskManager.getSnapshot();
+            sendVersioned(exchange, snapshot, () -> gson.toJson(snapshot.getEpics()));
         } else if (pathParts.length == 3) {
             int epicId = Integer.parseInt(pathParts[2]);
             Epic epic = taskManager.getEpicById(epicId);
             String response = gson.toJson(epic);
             sendText(exchange, response);
+        } else if (pathParts.length == 4 && "subtasks".equals(pathParts[3]) && status != null) {
+            int epicId = Integer.parseInt(pathParts[2]);
+            sendText(exchange, gson.toJson(taskManager.getEpicSubTasks(epicId, status)));
         } else if (pathParts.length == 4 && "subtasks".equals(pathParts[3])) {
             int epicId = Integer.parseInt(pathParts[2]);
             Epic epic = taskManager.getEpicById(epicId);
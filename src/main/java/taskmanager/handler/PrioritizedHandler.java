@@ -2,12 +2,17 @@ package main.java.taskmanager.handler;
 
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
+import main.java.taskmanager.Page;
 import main.java.taskmanager.Task;
 import main.java.taskmanager.TaskManager;
 import main.java.taskmanager.handler.BaseHttpHandler;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 
 public class PrioritizedHandler extends BaseHttpHandler {
 
@@ -24,16 +29,41 @@ public class PrioritizedHandler extends BaseHttpHandler {
         String method = exchange.getRequestMethod();
 
         try {
-            if ("GET".equals(method)) {
+            Map<String, String> query = parseQuery(exchange);
+            if ("GET".equals(method) && query.containsKey("duration")) {
+                LocalDateTime after = parseTime(query, "after");
+                LocalDateTime slot = taskManager.findFreeSlot(after == null ? LocalDateTime.now() : after,
+                        parseDuration(query.get("duration")));
+                sendText(exchange, gson.toJson(Map.of("startTime", slot)));
+            } else if ("GET".equals(method) && query.containsKey("at")) {
+                List<Task> active = taskManager.getActiveTasks(parseTime(query, "at"));
+                sendText(exchange, gson.toJson(active));
+            } else if ("GET".equals(method) && (query.containsKey("from") || query.containsKey("to"))) {
+                List<Task> window = taskManager.getPrioritizedTasks(parseTime(query, "from"), parseTime(query, "to"));
+                sendText(exchange, gson.toJson(window));
+            } else if ("GET".equals(method) && isPaged(query)) {
+                Page<Task> page = taskManager.getPrioritizedTasks(parseLimit(query), parseCursor(query));
+                sendText(exchange, gson.toJson(page));
+            } else if ("GET".equals(method)) {
                 List<Task> prioritizedTasks = taskManager.getPrioritizedTasks();
                 String response = gson.toJson(prioritizedTasks);
                 sendText(exchange, response);
             } else {
                 sendNotFound(exchange);
             }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
         } catch (Exception e) {
             exchange.sendResponseHeaders(500, 0);
             exchange.close();
         }
     }
+
+    private Duration parseDuration(String value) {
+        try {
+            return Duration.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректная продолжительность: " + value);
+        }
+    }
 }
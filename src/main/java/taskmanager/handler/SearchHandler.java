@@ -0,0 +1,46 @@
+package main.java.taskmanager.handler;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import main.java.taskmanager.Task;
+import main.java.taskmanager.TaskManager;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+public class SearchHandler extends BaseHttpHandler {
+
+    private final TaskManager taskManager;
+    private final Gson gson;
+
+    public SearchHandler(TaskManager taskManager, Gson gson) {
+        this.taskManager = taskManager;
+        this.gson = gson;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+
+        try {
+            Map<String, String> query = parseQuery(exchange);
+            if ("GET".equals(method)) {
+                String text = query.get("q");
+                if (text == null || text.isBlank()) {
+                    sendBadRequest(exchange, "Не задан поисковый запрос");
+                    return;
+                }
+                List<Task> found = taskManager.search(text, parseLimit(query));
+                sendText(exchange, gson.toJson(found));
+            } else {
+                sendNotFound(exchange);
+            }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
+        } catch (Exception e) {
+            exchange.sendResponseHeaders(500, 0);
+            exchange.close();
+        }
+    }
+}
@@ -3,15 +3,18 @@ package main.java.taskmanager.handler;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.sun.net.httpserver.HttpExchange;
+import main.java.taskmanager.Page;
 import main.java.taskmanager.SubTask;
 import main.java.taskmanager.TaskManager;
+import main.java.taskmanager.TaskSnapshot;
+import main.java.taskmanager.TaskStatus;
 import main.java.taskmanager.exception.NotFoundException;
 import main.java.taskmanager.exception.TaskValidationException;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
+import java.util.Map;
 
 public class SubtaskHandler extends BaseHttpHandler {
 
@@ -47,6 +50,8 @@ public class SubtaskHandler extends BaseHttpHandler {
             sendNotFound(exchange);
         } catch (TaskValidationException e) {
             sendHasInteractions(exchange);
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
         } catch (Exception e) {
             exchange.sendResponseHeaders(500, 0);
             exchange.close();
@@ -54,10 +59,16 @@ public class SubtaskHandler extends BaseHttpHandler {
     }
 
     private void handleGet(HttpExchange exchange, String[] pathParts) throws IOException {
-        if (pathParts.length == 2) {
-            List<SubTask> subtasks = taskManager.getAllSubTasks();
-            String response = gson.toJson(subtasks);
-            sendText(exchange, response);
+        Map<String, String> query = parseQuery(exchange);
+        TaskStatus status = parseStatus(query);
+        if (pathParts.length == 2 && status != null) {
+            sendText(exchange, gson.toJson(taskManager.getSubTasksByStatus(status)));
+        } else if (pathParts.length == 2 && isPaged(query)) {
+            Page<SubTask> page = taskManager.getSubTasks(parseLimit(query), parseCursor(query));
+            sendText(exchange, gson.toJson(page));
+        } else if (pathParts.length == 2) {
+            TaskSnapshot snapshot = taskManager.getSnapshot();
+            sendVersioned(exchange, snapshot, () -> gson.toJson(snapshot.getSubTasks()));
         } else if (pathParts.length == 3) {
             int subtaskId = Integer.parseInt(pathParts[2]);
             SubTask subtask = taskManager.getSubTaskById(subtaskId);
@@ -3,18 +3,23 @@ package main.java.taskmanager.handler;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.sun.net.httpserver.HttpExchange;
+import main.java.taskmanager.Page;
 import main.java.taskmanager.Task;
 import main.java.taskmanager.TaskManager;
+import main.java.taskmanager.TaskSnapshot;
+import main.java.taskmanager.TaskStatus;
 import main.java.taskmanager.exception.NotFoundException;
 import main.java.taskmanager.exception.TaskValidationException;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
+import java.util.Map;
 
 public class TaskHandler extends BaseHttpHandler {
 
+    private static final String DEPENDENCIES = "dependencies";
+
     private TaskManager taskManager;
     private Gson gson;
 
@@ -35,7 +40,7 @@ public class TaskHandler extends BaseHttpHandler {
                     handleGet(exchange, pathParts);
                     break;
                 case "POST":
-                    handlePost(exchange);
+                    handlePost(exchange, pathParts);
                     break;
                 case "DELETE":
                     handleDelete(exchange, pathParts);
@@ -47,6 +52,8 @@ public class TaskHandler extends BaseHttpHandler {
             sendNotFound(exchange);
         } catch (TaskValidationException e) {
             sendHasInteractions(exchange);
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
         } catch (Exception e) {
             exchange.sendResponseHeaders(500, 0);
             exchange.close();
@@ -54,21 +61,44 @@ public class TaskHandler extends BaseHttpHandler {
     }
 
     private void handleGet(HttpExchange exchange, String[] pathParts) throws IOException {
-        if (pathParts.length == 2) {
-            List<Task> tasks = taskManager.getAllTasks();
-            String response = gson.toJson(tasks);
-            sendText(exchange, response);
+        Map<String, String> query = parseQuery(exchange);
+        TaskStatus status = parseStatus(query);
+        if (pathParts.length == 2 && status != null) {
+            sendText(exchange, gson.toJson(taskManager.getTasksByStatus(status)));
+        } else if (pathParts.length == 2 && isPaged(query)) {
+            Page<Task> page = taskManager.getTasks(parseLimit(query), parseCursor(query));
+            sendText(exchange, gson.toJson(page));
+        } else if (pathParts.length == 2) {
+            TaskSnapshot snapshot = taskManager.getSnapshot();
+            sendVersioned(exchange, snapshot, () -> gson.toJson(snapshot.getTasks()));
         } else if (pathParts.length == 3) {
             int taskId = Integer.parseInt(pathParts[2]);
             Task task = taskManager.getTaskById(taskId);
             String response = gson.toJson(task);
             sendText(exchange, response);
+        } else if (isDependencies(pathParts, 4)) {
+            int taskId = Integer.parseInt(pathParts[2]);
+            sendText(exchange, gson.toJson(taskManager.getDependencies(taskId)));
         } else {
             sendNotFound(exchange);
         }
     }
 
-    private void handlePost(HttpExchange exchange) throws IOException {
+    private void handlePost(HttpExchange exchange, String[] pathParts) throws IOException {
+        if (isDependencies(pathParts, 5)) {
+            int taskId = Integer.parseInt(pathParts[2]);
+            try {
+                taskManager.addDependency(taskId, Integer.parseInt(pathParts[4]));
+            } catch (TaskValidationException e) {
+                sendBadRequest(exchange, e.getMessage());
+                return;
+            }
+            byte[] response = gson.toJson(taskManager.getDependencies(taskId)).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(201, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+            return;
+        }
         InputStream inputStream = exchange.getRequestBody();
         String body = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
 
@@ -99,10 +129,16 @@ public class TaskHandler extends BaseHttpHandler {
             int taskId = Integer.parseInt(pathParts[2]);
             taskManager.deleteTaskById(taskId);
             sendText(exchange, "Задача удалена");
+        } else if (isDependencies(pathParts, 5)) {
+            int taskId = Integer.parseInt(pathParts[2]);
+            taskManager.removeDependency(taskId, Integer.parseInt(pathParts[4]));
+            sendText(exchange, gson.toJson(taskManager.getDependencies(taskId)));
         } else {
             sendNotFound(exchange);
         }
     }
 
-
+    private static boolean isDependencies(String[] pathParts, int length) {
+        return pathParts.length == length && DEPENDENCIES.equals(pathParts[3]);
+    }
 }
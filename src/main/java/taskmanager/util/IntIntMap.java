@@ -0,0 +1,140 @@
+package main.java.taskmanager.util;
+
+import java.util.Arrays;
+
+/**
+ * Хэш-таблица int → int с открытой адресацией. Свободная ячейка помечается ключом Integer.MIN_VALUE,
+ * поэтому сам этот ключ хранить нельзя.
+ */
+public class IntIntMap {
+
+    private static final int FREE = Integer.MIN_VALUE;
+    private static final int MIN_CAPACITY = 4;
+    private static final float LOAD_FACTOR = 0.7f;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int threshold;
+    private int mask;
+
+    public IntIntMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    public int get(int key, int defaultValue) {
+        int slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    public void put(int key, int value) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Ключ " + FREE + " зарезервирован");
+        }
+        int slot = indexOf(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            allocate(keys.length << 1);
+        }
+    }
+
+    public boolean remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = indexOf(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = FREE;
+        size--;
+        if (keys.length > MIN_CAPACITY && size < threshold >> 3) {
+            allocate(keys.length >> 1);
+        }
+        return true;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    private int find(int key) {
+        if (key == FREE) {
+            return -1;
+        }
+        int slot = indexOf(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int indexOf(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+
+        if (oldKeys == null) {
+            return;
+        }
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = indexOf(oldKeys[i]);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+}
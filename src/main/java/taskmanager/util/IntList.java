@@ -0,0 +1,143 @@
+package main.java.taskmanager.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.function.IntPredicate;
+
+/**
+ * Список int на основе массива. Примитивные методы (getInt, addInt, setInt, containsInt, removeInt)
+ * работают без упаковки; интерфейс List оставлен для совместимости с кодом и сериализацией.
+ */
+public class IntList extends AbstractList<Integer> implements RandomAccess {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] data = EMPTY;
+    private int size;
+
+    public IntList() {
+    }
+
+    public IntList(int capacity) {
+        data = new int[capacity];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getInt(int index) {
+        checkIndex(index);
+        return data[index];
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    public void addInt(int value) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, Math.max(4, size + (size >> 1) + 1));
+        }
+        data[size++] = value;
+        modCount++;
+    }
+
+    @Override
+    public boolean add(Integer value) {
+        addInt(value);
+        return true;
+    }
+
+    public int setInt(int index, int value) {
+        checkIndex(index);
+        int previous = data[index];
+        data[index] = value;
+        return previous;
+    }
+
+    @Override
+    public Integer set(int index, Integer value) {
+        return setInt(index, value);
+    }
+
+    public int indexOfInt(int value) {
+        for (int i = 0; i < size; i++) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean containsInt(int value) {
+        return indexOfInt(value) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object value) {
+        return value instanceof Integer ? indexOfInt((Integer) value) : -1;
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return indexOf(value) >= 0;
+    }
+
+    public boolean removeInt(int value) {
+        int index = indexOfInt(value);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    public boolean removeIfInt(IntPredicate filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!filter.test(data[i])) {
+                data[kept++] = data[i];
+            }
+        }
+        if (kept == size) {
+            return false;
+        }
+        size = kept;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public Integer remove(int index) {
+        checkIndex(index);
+        return removeAt(index);
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    public int[] toIntArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    private int removeAt(int index) {
+        int removed = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package main.java.taskmanager.util;
+
+import java.util.Arrays;
+
+/**
+ * Множество int с открытой адресацией. Свободная ячейка помечается значением Integer.MIN_VALUE,
+ * поэтому само это значение хранить нельзя.
+ */
+public class IntSet {
+
+    private static final int FREE = Integer.MIN_VALUE;
+    private static final int MIN_CAPACITY = 8;
+    private static final float LOAD_FACTOR = 0.7f;
+
+    private int[] slots;
+    private int size;
+    private int threshold;
+    private int mask;
+
+    public IntSet() {
+        allocate(MIN_CAPACITY);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int value) {
+        return find(value) >= 0;
+    }
+
+    public boolean add(int value) {
+        if (value == FREE) {
+            throw new IllegalArgumentException("Значение " + FREE + " зарезервировано");
+        }
+        int slot = indexOf(value);
+        while (slots[slot] != FREE) {
+            if (slots[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = value;
+        if (++size > threshold) {
+            allocate(slots.length << 1);
+        }
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int slot = find(value);
+        if (slot < 0) {
+            return false;
+        }
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (slots[next] != FREE) {
+            int home = indexOf(slots[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                slots[gap] = slots[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[gap] = FREE;
+        size--;
+        if (slots.length > MIN_CAPACITY && size < threshold >> 3) {
+            allocate(slots.length >> 1);
+        }
+        return true;
+    }
+
+    public void clear() {
+        slots = null;
+        size = 0;
+        allocate(MIN_CAPACITY);
+    }
+
+    public int[] toSortedArray() {
+        int[] values = new int[size];
+        int i = 0;
+        for (int value : slots) {
+            if (value != FREE) {
+                values[i++] = value;
+            }
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    private int find(int value) {
+        if (value == FREE) {
+            return -1;
+        }
+        int slot = indexOf(value);
+        while (slots[slot] != FREE) {
+            if (slots[slot] == value) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int indexOf(int value) {
+        int hash = value * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        int[] old = slots;
+        slots = new int[capacity];
+        Arrays.fill(slots, FREE);
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+
+        if (old == null) {
+            return;
+        }
+        for (int value : old) {
+            if (value != FREE) {
+                int slot = indexOf(value);
+                while (slots[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = value;
+            }
+        }
+    }
+}
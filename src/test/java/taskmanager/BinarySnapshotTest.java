@@ -0,0 +1,125 @@
+package test.java.taskmanager;
+
+import main.java.taskmanager.BinarySnapshot;
+import main.java.taskmanager.Epic;
+import main.java.taskmanager.ManagerSaveException;
+import main.java.taskmanager.SubTask;
+import main.java.taskmanager.Task;
+import main.java.taskmanager.TaskStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinarySnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Бинарный снимок должен сохранять все поля, пустые значения и записи больше буфера")
+    void writeAndRead_ShouldRoundTripAllFields() {
+        File file = directory.resolve("tasks.bin").toFile();
+        Task task = new Task(1, "Задача", "Описание, с запятой", TaskStatus.IN_PROGRESS);
+        task.setStartTime(LocalDateTime.of(2025, 1, 6, 9, 30));
+        task.setDuration(Duration.ofMinutes(90));
+        Task empty = new Task(2, null, null, null);
+        Epic epic = new Epic(3, "Эпик", "ё".repeat(1_500_000), TaskStatus.NEW);
+        SubTask subTask = new SubTask(3, 4, "Подзадача", null, TaskStatus.DONE);
+        subTask.setDuration(Duration.ofMinutes(15));
+
+        BinarySnapshot.write(file, List.of(task, empty), List.of(epic), List.of(subTask));
+        List<Task> loaded = new ArrayList<>();
+        BinarySnapshot.read(file, loaded::add);
+
+        assertTrue(BinarySnapshot.isBinary(file));
+        assertEquals(List.of(task, empty, epic, subTask), loaded);
+        assertEquals(task.getStartTime(), loaded.get(0).getStartTime());
+        assertEquals(task.getDuration(), loaded.get(0).getDuration());
+        assertNull(loaded.get(1).getName());
+        assertNull(loaded.get(1).getStartTime());
+        assertEquals(epic.getDescription(), loaded.get(2).getDescription());
+        assertEquals(3, ((SubTask) loaded.get(3)).getEpicId());
+        assertEquals(Duration.ofMinutes(15), loaded.get(3).getDuration());
+    }
+
+    @Test
+    @DisplayName("Файл с чужой сигнатурой не должен распознаваться как бинарный снимок")
+    void read_WrongMagic_ShouldBeRejected() throws IOException {
+        File file = directory.resolve("tasks.csv").toFile();
+        Files.writeString(file.toPath(), "id,type,name,status,description,epic\n", StandardCharsets.UTF_8);
+
+        assertFalse(BinarySnapshot.isBinary(file));
+        assertThrows(ManagerSaveException.class, () -> BinarySnapshot.read(file, task -> { }));
+    }
+
+    @Test
+    @DisplayName("Снимок неизвестной версии должен отклоняться при чтении")
+    void read_UnknownVersion_ShouldBeRejected() throws IOException {
+        File file = directory.resolve("tasks.bin").toFile();
+        BinarySnapshot.write(file, List.of(new Task(1, "Задача", null, TaskStatus.NEW)), List.of(), List.of());
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(4);
+            raw.writeInt(99);
+        }
+
+        assertTrue(BinarySnapshot.isBinary(file));
+        ManagerSaveException e = assertThrows(ManagerSaveException.class,
+                () -> BinarySnapshot.read(file, task -> { }));
+        assertTrue(e.getMessage().contains("99"));
+    }
+
+    @Test
+    @DisplayName("Время начала до 1970 года не должно сдвигаться на минуту при сохранении и загрузке")
+    void writeAndRead_StartBeforeEpoch_ShouldKeepMinute() {
+        File file = directory.resolve("tasks.bin").toFile();
+        Task task = new Task(1, "Задача", null, TaskStatus.NEW);
+        task.setStartTime(LocalDateTime.of(1969, 12, 31, 23, 59, 30));
+        task.setDuration(Duration.ofMinutes(10));
+
+        BinarySnapshot.write(file, List.of(task), List.of(), List.of());
+        List<Task> loaded = new ArrayList<>();
+        BinarySnapshot.read(file, loaded::add);
+
+        assertEquals(LocalDateTime.of(1969, 12, 31, 23, 59), loaded.get(0).getStartTime());
+    }
+
+    @Test
+    @DisplayName("Зависимости должны читаться из снимка версии 2, а в версии 1 резервное поле должно игнорироваться")
+    void read_Dependencies_ShouldDependOnVersion() throws IOException {
+        File file = directory.resolve("tasks.bin").toFile();
+        List<Task> tasks = List.of(new Task(1, "Первая", null, TaskStatus.NEW),
+                new Task(2, "Вторая", null, TaskStatus.NEW));
+        BinarySnapshot.write(file, tasks, List.of(), List.of(), new int[] {2, 1});
+        List<Integer> edges = new ArrayList<>();
+        BinarySnapshot.read(file, task -> { }, (task, dependency) -> {
+            edges.add(task);
+            edges.add(dependency);
+        });
+        assertEquals(List.of(2, 1), edges);
+
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(4);
+            raw.writeInt(1);
+            raw.seek(12);
+            raw.writeInt(12345);
+        }
+        List<Task> loaded = new ArrayList<>();
+        edges.clear();
+        BinarySnapshot.read(file, loaded::add, (task, dependency) -> edges.add(task));
+        assertEquals(tasks, loaded);
+        assertTrue(edges.isEmpty());
+    }
+}
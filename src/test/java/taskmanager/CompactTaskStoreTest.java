@@ -0,0 +1,61 @@
+package test.java.taskmanager;
+
+import main.java.taskmanager.CompactTaskStore;
+import main.java.taskmanager.SubTask;
+import main.java.taskmanager.TaskStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactTaskStoreTest {
+
+    @Test
+    @DisplayName("Подзадача должна восстанавливаться из строки хранилища со всеми полями")
+    void get_AfterPut_ShouldMaterializeAllFields() {
+        CompactTaskStore<SubTask> store = CompactTaskStore.forSubTasks();
+        SubTask subTask = new SubTask(7, 42, "Подзадача", "Описание", TaskStatus.IN_PROGRESS);
+        subTask.setStartTime(LocalDateTime.of(1969, 12, 31, 23, 59));
+        subTask.setDuration(Duration.ofMinutes(90));
+        store.put(subTask.getId(), subTask);
+
+        SubTask stored = store.get(42);
+
+        assertNotSame(subTask, stored);
+        assertEquals(subTask, stored);
+        assertEquals(7, stored.getEpicId());
+        assertEquals(subTask.getStartTime(), stored.getStartTime());
+        assertEquals(subTask.getEndTime(), stored.getEndTime());
+        assertEquals(subTask.getEndTime().toEpochSecond(ZoneOffset.UTC) / 60, store.endMinute(42));
+    }
+
+    @Test
+    @DisplayName("Случайные вставки и удаления должны давать тот же результат, что и HashMap")
+    void putAndRemove_RandomOperations_ShouldMatchHashMap() {
+        CompactTaskStore<SubTask> store = CompactTaskStore.forSubTasks();
+        Map<Integer, SubTask> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            int id = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), store.remove(id));
+            } else {
+                SubTask subTask = new SubTask(random.nextInt(10), id, "s" + i, null, TaskStatus.NEW);
+                assertEquals(expected.put(id, subTask), store.put(id, subTask));
+            }
+        }
+
+        assertEquals(expected, store);
+        store.clear();
+        assertTrue(store.isEmpty());
+        assertNull(store.get(expected.keySet().iterator().next()));
+    }
+}
@@ -0,0 +1,176 @@
+package test.java.taskmanager;
+
+import main.java.taskmanager.ConcurrentTaskManager;
+import main.java.taskmanager.Epic;
+import main.java.taskmanager.SubTask;
+import main.java.taskmanager.Task;
+import main.java.taskmanager.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTaskManagerTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 500;
+
+    private ConcurrentTaskManager taskManager;
+
+    @BeforeEach
+    void setUp() {
+        taskManager = new ConcurrentTaskManager();
+    }
+
+    @Test
+    @DisplayName("Параллельное добавление задач должно выдавать уникальные ID без потерь")
+    void addTask_FromManyThreads_ShouldAssignUniqueIds() throws Exception {
+        ConcurrentLinkedQueue<Task> added = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                Task task = new Task("Задача", "Описание");
+                task.setStatus(TaskStatus.NEW);
+                taskManager.addTask(task);
+                added.add(task);
+            }
+        });
+
+        Set<Integer> ids = new HashSet<>();
+        for (Task task : added) {
+            assertTrue(ids.add(task.getId()), "ID " + task.getId() + " выдан дважды");
+        }
+        assertEquals(THREADS * OPERATIONS, taskManager.getAllTasks().size());
+    }
+
+    @Test
+    @DisplayName("Статус эпика должен соответствовать подзадачам после конкурентных изменений")
+    void subTaskWrites_FromManyThreads_ShouldKeepEpicsConsistent() throws Exception {
+        List<Epic> epics = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Epic epic = new Epic(0, "Эпик " + i, "Описание", TaskStatus.NEW);
+            taskManager.addEpic(epic);
+            epics.add(epic);
+        }
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            List<SubTask> own = new ArrayList<>();
+            for (int i = 0; i < OPERATIONS; i++) {
+                if (own.isEmpty() || random.nextInt(3) == 0) {
+                    Epic epic = epics.get(random.nextInt(epics.size()));
+                    SubTask subTask = new SubTask(epic.getId(), 0, "Подзадача", "Описание", TaskStatus.NEW);
+                    taskManager.addSubTask(subTask);
+                    own.add(subTask);
+                } else {
+                    SubTask old = own.get(random.nextInt(own.size()));
+                    TaskStatus status = TaskStatus.values()[random.nextInt(TaskStatus.values().length)];
+                    taskManager.updateSubTask(new SubTask(old.getEpicId(), old.getId(), old.getName(),
+                            old.getDescription(), status));
+                }
+                taskManager.getAllSubTasks();
+                taskManager.getEpicById(epics.get(random.nextInt(epics.size())).getId());
+            }
+        });
+
+        assertEpicsConsistent();
+    }
+
+    @Test
+    @DisplayName("Перенос общих подзадач между эпиками из разных потоков не должен терять связи")
+    void moveSubTasks_BetweenEpicsFromManyThreads_ShouldKeepLinks() throws Exception {
+        List<Epic> epics = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Epic epic = new Epic(0, "Эпик " + i, "Описание", TaskStatus.NEW);
+            taskManager.addEpic(epic);
+            epics.add(epic);
+        }
+        List<Integer> shared = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            SubTask subTask = new SubTask(epics.get(i % epics.size()).getId(), 0, "Подзадача", null, TaskStatus.NEW);
+            taskManager.addSubTask(subTask);
+            shared.add(subTask.getId());
+        }
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 20 * OPERATIONS; i++) {
+                int subTaskId = shared.get(random.nextInt(shared.size()));
+                Epic target = epics.get(random.nextInt(epics.size()));
+                TaskStatus status = TaskStatus.values()[random.nextInt(TaskStatus.values().length)];
+                int action = random.nextInt(10);
+                if (action == 0 && subTaskId % 8 == 0) {
+                    taskManager.deleteSubTaskById(subTaskId);
+                } else if (action < 6) {
+                    try {
+                        taskManager.updateSubTask(new SubTask(target.getId(), subTaskId, "Подзадача", null, status));
+                    } catch (IllegalArgumentException deleted) {
+                        // Подзадачу удалил другой поток.
+                    }
+                } else {
+                    SubTask read = taskManager.getSubTaskById(subTaskId);
+                    if (read != null) {
+                        assertNotNull(taskManager.getEpicById(read.getEpicId()));
+                    }
+                    taskManager.getAllSubTasks();
+                }
+            }
+        });
+
+        assertEpicsConsistent();
+    }
+
+    private void assertEpicsConsistent() {
+        int linked = 0;
+        for (Epic epic : taskManager.getAllEpics()) {
+            boolean hasNew = false;
+            boolean hasInProgress = false;
+            for (int subTaskId : epic.getSubTaskIds()) {
+                SubTask subTask = taskManager.getSubTaskById(subTaskId);
+                assertNotNull(subTask);
+                assertEquals(epic.getId(), subTask.getEpicId());
+                hasNew |= subTask.getStatus() == TaskStatus.NEW;
+                hasInProgress |= subTask.getStatus() == TaskStatus.IN_PROGRESS;
+                linked++;
+            }
+            TaskStatus expected = hasInProgress ? TaskStatus.IN_PROGRESS
+                    : hasNew || epic.getSubTaskIds().isEmpty() ? TaskStatus.NEW : TaskStatus.DONE;
+            assertEquals(expected, epic.getStatus());
+        }
+        assertEquals(taskManager.getAllSubTasks().size(), linked);
+    }
+
+    private void runConcurrently(Runnable work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    work.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
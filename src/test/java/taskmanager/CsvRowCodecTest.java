@@ -0,0 +1,81 @@
+package test.java.taskmanager;
+
+import main.java.taskmanager.CsvRowCodec;
+import main.java.taskmanager.Epic;
+import main.java.taskmanager.SubTask;
+import main.java.taskmanager.Task;
+import main.java.taskmanager.TaskStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRowCodecTest {
+
+    private final CsvRowCodec codec = new CsvRowCodec();
+
+    @Test
+    @DisplayName("Запятые, обратные слеши и переводы строк должны экранироваться и восстанавливаться")
+    void toRowAndParse_SpecialCharacters_ShouldRoundTrip() {
+        Task task = new Task(5, "Имя, с запятой\\ и\nпереносом", "a\\,b\r\n\\n,", TaskStatus.NEW);
+
+        String row = codec.toRow(task);
+        Task parsed = codec.parse(row);
+
+        assertFalse(row.contains("\n"));
+        assertFalse(row.contains("\r"));
+        assertTrue(row.startsWith("5,TASK,Имя\\, с запятой\\\\ и\\nпереносом,NEW,"));
+        assertEquals(task.getName(), parsed.getName());
+        assertEquals(task.getDescription(), parsed.getDescription());
+    }
+
+    @Test
+    @DisplayName("Пустые значения, пустая строка и строка \\N должны различаться")
+    void toRowAndParse_NullsAndMarkerText_ShouldStayDistinct() {
+        Task empty = new Task(1, null, "", null);
+        Task marker = new Task(2, "\\N", "\\", TaskStatus.DONE);
+
+        Task parsedEmpty = codec.parse(codec.toRow(empty));
+        Task parsedMarker = codec.parse(codec.toRow(marker));
+
+        assertNull(parsedEmpty.getName());
+        assertEquals("", parsedEmpty.getDescription());
+        assertNull(parsedEmpty.getStatus());
+        assertEquals("\\N", parsedMarker.getName());
+        assertEquals("\\", parsedMarker.getDescription());
+    }
+
+    @Test
+    @DisplayName("Подзадача должна сохранять эпик, время начала и продолжительность")
+    void writeRow_SubTask_ShouldKeepEpicAndTime() throws IOException {
+        SubTask subTask = new SubTask(3, 4, "Подзадача", "Описание", TaskStatus.IN_PROGRESS);
+        subTask.setStartTime(LocalDateTime.of(2024, 3, 5, 9, 7, 30));
+        subTask.setDuration(Duration.ofMinutes(90));
+        StringWriter out = new StringWriter();
+
+        codec.writeRow(subTask, out);
+        SubTask parsed = (SubTask) codec.parse(out.toString().replace("\n", ""));
+
+        assertTrue(out.toString().endsWith("\n"));
+        assertEquals(3, parsed.getEpicId());
+        assertEquals(subTask.getStartTime(), parsed.getStartTime());
+        assertEquals(subTask.getDuration(), parsed.getDuration());
+    }
+
+    @Test
+    @DisplayName("Строка старого формата из шести полей должна читаться")
+    void parse_LegacyRow_ShouldBeAccepted() {
+        Task epic = codec.parse("2,EPIC,Переезд,NEW,Описание,");
+        Task subTask = codec.parse("3,SUBTASK,Найти риэлтора,NEW,Нужен хороший риэлтор,2");
+
+        assertInstanceOf(Epic.class, epic);
+        assertEquals(2, ((SubTask) subTask).getEpicId());
+        assertNull(subTask.getStartTime());
+        assertThrows(IllegalArgumentException.class, () -> codec.parse("1,TASK,Имя"));
+    }
+}
@@ -0,0 +1,89 @@
+package test.java.taskmanager;
+
+import main.java.taskmanager.CsvRowCodec;
+import main.java.taskmanager.CsvSnapshotLoader;
+import main.java.taskmanager.Task;
+import main.java.taskmanager.TaskStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvSnapshotLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Загрузка по частям должна пропускать заголовок и сохранять порядок строк на границах частей")
+    void load_ManyChunks_ShouldSkipHeaderAndKeepOrder() throws IOException {
+        List<Task> expected = new ArrayList<>();
+        for (int i = 1; i <= 40_000; i++) {
+            expected.add(new Task(i, "Задача " + i, "Описание, " + "ж".repeat(i % 300), TaskStatus.NEW));
+        }
+        File file = write(expected);
+        assertTrue(file.length() > 3 * (1 << 22));
+
+        List<Task> loaded = load(file);
+
+        assertEquals(expected, loaded);
+        assertEquals(expected.get(39_999).getDescription(), loaded.get(39_999).getDescription());
+    }
+
+    @Test
+    @DisplayName("Строка длиннее части файла должна собираться целиком")
+    void load_LineLongerThanChunk_ShouldBeParsedWhole() throws IOException {
+        Task huge = new Task(2, "Большая", "d".repeat(5 * 1024 * 1024), TaskStatus.DONE);
+        List<Task> expected = List.of(new Task(1, "Перед", null, TaskStatus.NEW), huge,
+                new Task(3, "После", null, TaskStatus.NEW));
+        File file = write(expected);
+
+        List<Task> loaded = load(file);
+
+        assertEquals(expected, loaded);
+        assertEquals(huge.getDescription().length(), loaded.get(1).getDescription().length());
+    }
+
+    @Test
+    @DisplayName("Файл только с заголовком и без перевода строки в конце должен давать пустой список")
+    void load_HeaderOnly_ShouldReturnNothing() throws IOException {
+        File file = directory.resolve("tasks.csv").toFile();
+        Files.writeString(file.toPath(), CsvRowCodec.HEADER, StandardCharsets.UTF_8);
+
+        assertTrue(load(file).isEmpty());
+    }
+
+    private File write(List<Task> tasks) throws IOException {
+        File file = directory.resolve("tasks.csv").toFile();
+        CsvRowCodec codec = new CsvRowCodec();
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            codec.writeHeader(writer);
+            for (Task task : tasks) {
+                codec.writeRow(task, writer);
+            }
+        }
+        return file;
+    }
+
+    private static List<Task> load(File file) {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Task> loaded = new ArrayList<>();
+            CsvSnapshotLoader.load(file, pool, loaded::add);
+            return loaded;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
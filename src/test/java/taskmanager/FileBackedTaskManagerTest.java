@@ -0,0 +1,328 @@
+package test.java.taskmanager;
+
+import main.java.taskmanager.CompactionStats;
+import main.java.taskmanager.Epic;
+import main.java.taskmanager.FileBackedTaskManager;
+import main.java.taskmanager.JournalCompactor;
+import main.java.taskmanager.SnapshotFormat;
+import main.java.taskmanager.SubTask;
+import main.java.taskmanager.Task;
+import main.java.taskmanager.TaskJournal;
+import main.java.taskmanager.TaskStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileBackedTaskManagerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Журнал должен восстанавливать добавления, обновления и удаления после перезапуска")
+    void loadFromFile_WithJournal_ShouldReplayAllChanges() {
+        File snapshot = directory.resolve("tasks.csv").toFile();
+        File journalFile = directory.resolve("tasks.log").toFile();
+        int epicId;
+        int subTaskId;
+        FileBackedTaskManager manager = new FileBackedTaskManager(snapshot, journalFile);
+        try {
+            Task task = new Task("Задача, с запятой", "Строка 1\nСтрока 2");
+            manager.addTask(task);
+            Task removed = new Task("Удаляемая", null);
+            manager.addTask(removed);
+            Epic epic = new Epic(0, "Эпик", "Описание", TaskStatus.NEW);
+            manager.addEpic(epic);
+            epicId = epic.getId();
+            SubTask subTask = new SubTask(epicId, 0, "Подзадача", null, TaskStatus.NEW);
+            subTask.setStartTime(LocalDateTime.of(2025, 1, 6, 9, 0));
+            subTask.setDuration(Duration.ofMinutes(30));
+            manager.addSubTask(subTask);
+            subTaskId = subTask.getId();
+
+            SubTask done = new SubTask(epicId, subTaskId, "Подзадача", null, TaskStatus.DONE);
+            manager.updateSubTask(done);
+            manager.deleteTaskById(removed.getId());
+            manager.awaitDurability();
+        } finally {
+            manager.close();
+        }
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(snapshot, journalFile);
+        try {
+            assertEquals(1, loaded.getAllTasks().size());
+            assertEquals("Задача, с запятой", loaded.getAllTasks().get(0).getName());
+            assertEquals("Строка 1\nСтрока 2", loaded.getAllTasks().get(0).getDescription());
+            assertEquals(TaskStatus.DONE, loaded.getEpicById(epicId).getStatus());
+            assertEquals(List.of(subTaskId), loaded.getEpicById(epicId).getSubTaskIds());
+            assertNull(loaded.getSubTaskById(subTaskId).getDescription());
+        } finally {
+            loaded.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Оборванная последняя запись журнала должна отбрасываться, а файл обрезаться по ее началу")
+    void loadFromFile_TornTailRecord_ShouldStopAndTruncate() throws IOException {
+        File snapshot = directory.resolve("tasks.csv").toFile();
+        File journalFile = directory.resolve("tasks.log").toFile();
+        FileBackedTaskManager manager = new FileBackedTaskManager(snapshot, journalFile);
+        try {
+            manager.addTask(new Task("Первая", "Описание первой задачи"));
+            manager.addTask(new Task("Вторая", "Описание второй задачи"));
+            manager.awaitDurability();
+        } finally {
+            manager.close();
+        }
+        byte[] intact = Files.readAllBytes(journalFile.toPath());
+        byte[] lastRecord = frameOf(journalFile, 1);
+        Files.write(journalFile.toPath(), Arrays.copyOf(lastRecord, lastRecord.length / 2),
+                StandardOpenOption.APPEND);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(snapshot, journalFile);
+        try {
+            assertEquals(2, loaded.getAllTasks().size());
+            assertEquals(intact.length, journalFile.length());
+            loaded.addTask(new Task("Третья", null));
+            loaded.awaitDurability();
+        } finally {
+            loaded.close();
+        }
+
+        FileBackedTaskManager reopened = FileBackedTaskManager.loadFromFile(snapshot, journalFile);
+        try {
+            assertEquals(3, reopened.getAllTasks().size());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Запись с неверной контрольной суммой должна отбрасываться вместе со всеми следующими")
+    void loadFromFile_CorruptRecord_ShouldStopAtIt() throws IOException {
+        File journalFile = directory.resolve("tasks.log").toFile();
+        TaskJournal journal = new TaskJournal(journalFile);
+        try {
+            FileBackedTaskManager manager = new FileBackedTaskManager(directory.resolve("tasks.csv").toFile(),
+                    journal);
+            manager.addTask(new Task("Первая", null));
+            manager.addTask(new Task("Вторая", null));
+            manager.addTask(new Task("Третья", null));
+            manager.awaitDurability();
+        } finally {
+            journal.close();
+        }
+        String content = Files.readString(journalFile.toPath(), StandardCharsets.UTF_8);
+        Files.writeString(journalFile.toPath(), content.replace("Вторая", "Вторыя"), StandardCharsets.UTF_8);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(
+                directory.resolve("tasks.csv").toFile(), journalFile);
+        try {
+            assertEquals(List.of("Первая"), loaded.getAllTasks().stream().map(Task::getName).toList());
+            assertEquals(content.substring(0, content.indexOf('\n') + 1).getBytes(StandardCharsets.UTF_8).length,
+                    journalFile.length());
+        } finally {
+            loaded.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Оборванный пакет должен отвергаться целиком, без частичного применения")
+    void loadFromFile_TruncatedBatch_ShouldApplyNothingFromIt() throws IOException {
+        File snapshot = directory.resolve("tasks.csv").toFile();
+        File journalFile = directory.resolve("tasks.log").toFile();
+        FileBackedTaskManager manager = new FileBackedTaskManager(snapshot, journalFile);
+        int taskId;
+        try {
+            Task task = new Task("Первая", null);
+            manager.addTask(task);
+            taskId = task.getId();
+            Epic epic = new Epic(0, "Эпик", null, TaskStatus.NEW);
+            manager.addEpic(epic);
+            manager.addSubTask(new SubTask(epic.getId(), 0, "Подзадача", null, TaskStatus.NEW));
+            manager.deleteEpicById(epic.getId());
+            manager.awaitDurability();
+        } finally {
+            manager.close();
+        }
+        long intact = journalFile.length();
+        String delete = "DELETE,TASK," + taskId;
+        String put = "PUT,99,TASK,Вторая,NEW,\\N,,,";
+        String batch = "BATCH,2," + delete.length() + ":" + delete + put.length() + ":" + put;
+        Files.writeString(journalFile.toPath(), batch.substring(0, batch.length() - 8) + "\n",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(snapshot, journalFile);
+        try {
+            assertEquals(List.of("Первая"), loaded.getAllTasks().stream().map(Task::getName).toList());
+            assertTrue(loaded.getAllEpics().isEmpty());
+            assertTrue(loaded.getAllSubTasks().isEmpty());
+            assertEquals(intact, journalFile.length());
+        } finally {
+            loaded.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Сжатие должно переносить журнал в снимок, удалять сегмент и сохранять состояние после перезапуска")
+    void compact_ShouldFoldJournalIntoSnapshot() {
+        File snapshot = directory.resolve("tasks.csv").toFile();
+        TaskJournal journal = new TaskJournal(directory.resolve("tasks.log").toFile());
+        FileBackedTaskManager manager = new FileBackedTaskManager(snapshot, journal);
+        try (JournalCompactor compactor = new JournalCompactor(snapshot, SnapshotFormat.CSV, journal)) {
+            Task first = new Task("Первая", null);
+            manager.addTask(first);
+            manager.addTask(new Task("Вторая", null));
+            CompactionStats stats = compactor.compact();
+
+            assertTrue(snapshot.exists());
+            assertFalse(journal.getSealedFile().exists());
+            assertFalse(new File(snapshot.getPath() + ".tmp").exists());
+            assertEquals(0, stats.getLogSize());
+            assertEquals(1, stats.getCompactions());
+
+            manager.deleteTaskById(first.getId());
+            manager.addTask(new Task("Третья", null));
+            compactor.compact();
+            manager.addTask(new Task("Четвертая", null));
+            manager.awaitDurability();
+        } finally {
+            manager.close();
+        }
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(snapshot,
+                directory.resolve("tasks.log").toFile());
+        try {
+            assertEquals(List.of("Вторая", "Третья", "Четвертая"),
+                    loaded.getAllTasks().stream().sorted(Comparator.comparingInt(Task::getId))
+                            .map(Task::getName).toList());
+        } finally {
+            loaded.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Сжатие и checkpoint, запущенные одновременно, не должны терять изменения")
+    void compactAndCheckpoint_Concurrently_ShouldKeepAllChanges() throws InterruptedException {
+        File snapshot = directory.resolve("tasks.csv").toFile();
+        File journalFile = directory.resolve("tasks.log").toFile();
+        TaskJournal journal = new TaskJournal(journalFile);
+        FileBackedTaskManager manager = new FileBackedTaskManager(snapshot, journal);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (JournalCompactor compactor = new JournalCompactor(snapshot, SnapshotFormat.CSV, journal)) {
+            Thread compacting = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 30; i++) {
+                        compactor.compact();
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            compacting.start();
+            for (int i = 0; i < 300; i++) {
+                manager.addTask(new Task("Задача " + i, null));
+                if (i % 50 == 0) {
+                    manager.checkpoint();
+                }
+            }
+            manager.awaitDurability();
+            compacting.join();
+        } finally {
+            manager.close();
+        }
+        assertNull(failure.get());
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(snapshot, journalFile);
+        try {
+            assertEquals(300, loaded.getAllTasks().size());
+        } finally {
+            loaded.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Зависимости должны восстанавливаться из журнала и из снимка после checkpoint")
+    void loadFromFile_WithJournal_ShouldRestoreDependencies() {
+        File snapshot = directory.resolve("tasks.csv").toFile();
+        File journalFile = directory.resolve("tasks.log").toFile();
+        int[] ids = new int[3];
+        FileBackedTaskManager manager = new FileBackedTaskManager(snapshot, journalFile);
+        try {
+            addLinkedTasks(manager, ids);
+            manager.awaitDurability();
+        } finally {
+            manager.close();
+        }
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(snapshot, journalFile);
+        try {
+            assertLinked(loaded, ids);
+            loaded.checkpoint();
+            assertFalse(journalFile.exists());
+        } finally {
+            loaded.close();
+        }
+
+        FileBackedTaskManager reopened = FileBackedTaskManager.loadFromFile(snapshot, journalFile);
+        try {
+            assertLinked(reopened, ids);
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Зависимости должны сохраняться в снимке любого формата")
+    void loadFromFile_Snapshot_ShouldRestoreDependencies() {
+        for (SnapshotFormat format : SnapshotFormat.values()) {
+            File snapshot = directory.resolve("tasks." + format).toFile();
+            int[] ids = new int[3];
+            addLinkedTasks(new FileBackedTaskManager(snapshot, format, null), ids);
+
+            assertLinked(FileBackedTaskManager.loadFromFile(snapshot), ids);
+        }
+    }
+
+    // Первая задача зависит от второй; третья зависела от второй и удалена, связь первой с третьей снята.
+    private static void addLinkedTasks(FileBackedTaskManager manager, int[] ids) {
+        for (int i = 0; i < ids.length; i++) {
+            Task task = new Task("Задача " + i, null);
+            task.setStartTime(LocalDateTime.of(2025, 1, 6, 9, 0).plusHours(i));
+            task.setDuration(Duration.ofMinutes(30));
+            manager.addTask(task);
+            ids[i] = task.getId();
+        }
+        manager.addDependency(ids[0], ids[1]);
+        manager.addDependency(ids[0], ids[2]);
+        manager.addDependency(ids[2], ids[1]);
+        manager.removeDependency(ids[0], ids[2]);
+        manager.deleteTaskById(ids[2]);
+    }
+
+    private static void assertLinked(FileBackedTaskManager manager, int[] ids) {
+        assertEquals(List.of(ids[1]), manager.getDependencies(ids[0]).getDependsOn());
+        assertEquals(List.of(ids[0]), manager.getDependencies(ids[1]).getBlocks());
+        assertEquals(LocalDateTime.of(2025, 1, 6, 10, 30), manager.getDependencies(ids[0]).getEarliestStart());
+    }
+
+    private static byte[] frameOf(File journalFile, int index) throws IOException {
+        String[] lines = Files.readString(journalFile.toPath(), StandardCharsets.UTF_8).split("\n");
+        return (lines[index] + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,107 @@
+package test.java.taskmanager;
+
+import main.java.taskmanager.Epic;
+import main.java.taskmanager.Managers;
+import main.java.taskmanager.OffHeapTaskManager;
+import main.java.taskmanager.OffHeapTaskStore;
+import main.java.taskmanager.SubTask;
+import main.java.taskmanager.Task;
+import main.java.taskmanager.TaskManager;
+import main.java.taskmanager.TaskStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapTaskStoreTest {
+
+    @Test
+    @DisplayName("Случайные вставки, обновления и удаления должны давать тот же результат, что и HashMap")
+    void putAndRemove_RandomOperations_ShouldMatchHashMap() {
+        OffHeapTaskStore<SubTask> store = OffHeapTaskStore.forSubTasks();
+        Map<Integer, SubTask> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            int id = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), store.remove(id));
+            } else {
+                String name = random.nextBoolean() ? "Подзадача " + id : "Подзадача " + i + " ".repeat(random.nextInt(200));
+                SubTask subTask = new SubTask(random.nextInt(10), id, name, random.nextBoolean() ? null : "ё",
+                        TaskStatus.values()[random.nextInt(3)]);
+                subTask.setStartTime(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(random.nextInt(100_000)));
+                subTask.setDuration(Duration.ofMinutes(random.nextInt(120)));
+                assertEquals(expected.put(id, subTask), store.put(id, subTask));
+            }
+        }
+
+        assertEquals(expected, store);
+        for (SubTask subTask : expected.values()) {
+            assertEquals(subTask.getEndTime(), store.get(subTask.getId()).getEndTime());
+            assertEquals(subTask.getEpicId(), store.get(subTask.getId()).getEpicId());
+        }
+        store.clear();
+        assertTrue(store.isEmpty());
+        assertNull(store.get(expected.keySet().iterator().next()));
+    }
+
+    @Test
+    @DisplayName("Менеджер вне кучи из Managers должен хранить, обновлять и удалять задачи")
+    void getOffHeap_ShouldWorkAsTaskManager() {
+        TaskManager manager = Managers.getOffHeap();
+        Task task = new Task("Задача", "Описание");
+        manager.addTask(task);
+        Epic epic = new Epic(0, "Эпик", "Описание эпика", TaskStatus.NEW);
+        manager.addEpic(epic);
+        SubTask subTask = new SubTask(epic.getId(), 0, "Подзадача", null, TaskStatus.IN_PROGRESS);
+        manager.addSubTask(subTask);
+
+        manager.updateTask(new Task(task.getId(), "Задача", "Новое описание", TaskStatus.DONE));
+
+        assertEquals("Новое описание", manager.getTaskById(task.getId()).getDescription());
+        assertEquals(TaskStatus.DONE, manager.getTaskById(task.getId()).getStatus());
+        assertEquals(TaskStatus.IN_PROGRESS, manager.getEpicById(epic.getId()).getStatus());
+        manager.deleteSubTaskById(subTask.getId());
+        assertTrue(manager.getAllSubTasks().isEmpty());
+        assertEquals(TaskStatus.NEW, manager.getEpicById(epic.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Менеджер, открытый из каталога, должен видеть задачи, связи эпиков и продолжать нумерацию")
+    void open_AfterClose_ShouldRestoreBoard(@TempDir Path directory) {
+        int epicId;
+        try (OffHeapTaskManager manager = OffHeapTaskManager.open(directory)) {
+            manager.addTask(new Task("Задача", "Описание"));
+            Epic epic = new Epic(0, "Эпик", "Описание эпика", TaskStatus.NEW);
+            manager.addEpic(epic);
+            epicId = epic.getId();
+            SubTask subTask = new SubTask(epicId, 0, "Подзадача", null, TaskStatus.DONE);
+            subTask.setStartTime(LocalDateTime.of(2024, 3, 1, 10, 0));
+            subTask.setDuration(Duration.ofMinutes(45));
+            manager.addSubTask(subTask);
+        }
+
+        try (OffHeapTaskManager manager = OffHeapTaskManager.open(directory)) {
+            assertEquals("Задача", manager.getAllTasks().get(0).getName());
+            Epic epic = manager.getEpicById(epicId);
+            assertEquals("Эпик", epic.getName());
+            assertEquals(TaskStatus.DONE, epic.getStatus());
+            assertEquals(LocalDateTime.of(2024, 3, 1, 10, 45), epic.getEndTime());
+            assertEquals(List.of(manager.getAllSubTasks().get(0).getId()), epic.getSubTaskIds());
+
+            Task next = new Task("Следующая", null);
+            manager.addTask(next);
+            assertEquals(4, next.getId());
+        }
+    }
+}
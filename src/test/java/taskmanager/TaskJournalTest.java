@@ -0,0 +1,172 @@
+package test.java.taskmanager;
+
+import main.java.taskmanager.DurabilityPolicy;
+import main.java.taskmanager.TaskJournal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("При любой политике записи из нескольких потоков должны сохраняться полностью и по порядку потока")
+    void append_ManyThreads_ShouldPersistAllRecordsInThreadOrder() throws InterruptedException {
+        for (DurabilityPolicy policy : DurabilityPolicy.values()) {
+            File file = directory.resolve(policy + ".log").toFile();
+            try (TaskJournal journal = new TaskJournal(file, policy, 1, 64)) {
+                List<Thread> writers = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    int thread = t;
+                    writers.add(new Thread(() -> {
+                        for (int i = 0; i < 500; i++) {
+                            journal.append(thread + ":" + i);
+                        }
+                    }));
+                }
+                writers.forEach(Thread::start);
+                for (Thread writer : writers) {
+                    writer.join();
+                }
+                journal.awaitAll();
+
+                List<String> replayed = new ArrayList<>();
+                journal.replay(replayed::add);
+                assertEquals(2000, replayed.size(), policy.name());
+                Map<String, Integer> lastByThread = new HashMap<>();
+                for (String record : replayed) {
+                    String[] parts = record.split(":");
+                    int previous = lastByThread.getOrDefault(parts[0], -1);
+                    assertEquals(previous + 1, Integer.parseInt(parts[1]), policy.name());
+                    lastByThread.put(parts[0], previous + 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("При FSYNC_PER_OP запись должна быть в файле сразу после возврата из append")
+    void append_FsyncPerOp_ShouldBeDurableOnReturn() {
+        File file = directory.resolve("tasks.log").toFile();
+        try (TaskJournal journal = new TaskJournal(file, DurabilityPolicy.FSYNC_PER_OP, 60_000, 512)) {
+            journal.append("PUT,1");
+            List<String> replayed = new ArrayList<>();
+            journal.replay(replayed::add);
+            assertEquals(List.of("PUT,1"), replayed);
+        }
+    }
+
+    @Test
+    @DisplayName("Пакет должен сбрасываться по заполнению, а неполный пакет — ждать интервала или явного запроса")
+    void append_GroupCommit_ShouldFlushOnFullBatchOrRequest() throws InterruptedException {
+        File file = directory.resolve("tasks.log").toFile();
+        try (TaskJournal journal = new TaskJournal(file, DurabilityPolicy.ASYNC, 60_000, 3)) {
+            journal.append("PUT,1");
+            journal.append("PUT,2");
+            Thread.sleep(200);
+            assertEquals(0, file.length());
+
+            journal.append("PUT,3");
+            long deadline = System.currentTimeMillis() + 5_000;
+            List<String> replayed = new CopyOnWriteArrayList<>();
+            while (replayed.size() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+                replayed.clear();
+                journal.replay(replayed::add);
+            }
+            assertEquals(List.of("PUT,1", "PUT,2", "PUT,3"), replayed);
+
+            journal.append("PUT,4");
+            journal.awaitOwnWrites();
+            replayed.clear();
+            journal.replay(replayed::add);
+            assertEquals(4, replayed.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Ожидание всех записей во время сброса пакета не должно усыплять поток записи навсегда")
+    void awaitAll_WhileBatchIsWritten_ShouldNotHang() {
+        File file = directory.resolve("tasks.log").toFile();
+        try (TaskJournal journal = new TaskJournal(file, DurabilityPolicy.FSYNC_PER_BATCH, 60_000, 512)) {
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                AtomicBoolean done = new AtomicBoolean();
+                Thread waiter = new Thread(() -> {
+                    while (!done.get()) {
+                        journal.awaitAll();
+                    }
+                });
+                waiter.start();
+                for (int i = 0; i < 2000; i++) {
+                    journal.append("PUT," + i);
+                    journal.awaitOwnWrites();
+                }
+                done.set(true);
+                waiter.join();
+            });
+            List<String> replayed = new ArrayList<>();
+            journal.replay(replayed::add);
+            assertEquals(2000, replayed.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Очистка журнала во время записи не должна ломать поток записи")
+    void truncate_WhileAppending_ShouldKeepJournalWritable() {
+        File file = directory.resolve("tasks.log").toFile();
+        try (TaskJournal journal = new TaskJournal(file, DurabilityPolicy.FSYNC_PER_OP, 1, 64)) {
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                AtomicBoolean done = new AtomicBoolean();
+                Thread writer = new Thread(() -> {
+                    for (int i = 0; !done.get(); i++) {
+                        journal.append("PUT," + i);
+                    }
+                });
+                writer.start();
+                for (int i = 0; i < 300; i++) {
+                    journal.truncate();
+                }
+                done.set(true);
+                writer.join();
+            });
+            journal.truncate();
+            journal.append("PUT,последняя");
+            List<String> replayed = new ArrayList<>();
+            journal.replay(replayed::add);
+            assertEquals(List.of("PUT,последняя"), replayed);
+        }
+    }
+
+    @Test
+    @DisplayName("После ротации старые записи должны читаться из закрытого сегмента раньше новых")
+    void rotate_ShouldSealSegmentAndKeepReplayOrder() {
+        File file = directory.resolve("tasks.log").toFile();
+        try (TaskJournal journal = new TaskJournal(file)) {
+            journal.append("PUT,1");
+            journal.append("PUT,2");
+            File sealed = journal.rotate();
+            journal.append("PUT,3");
+            journal.awaitAll();
+
+            assertTrue(sealed.exists());
+            List<String> replayed = new ArrayList<>();
+            journal.replay(replayed::add);
+            assertEquals(List.of("PUT,1", "PUT,2", "PUT,3"), replayed);
+            assertThrows(RuntimeException.class, journal::rotate);
+        }
+    }
+}
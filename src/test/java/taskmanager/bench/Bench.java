@@ -0,0 +1,36 @@
+package test.java.taskmanager.bench;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Общие замеры для нагрузочных тестов этого пакета.
+ * Тесты помечены тегом {@code bench} и запускаются только с {@code -Dbench=true}.
+ */
+final class Bench {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    static long sink;
+
+    private Bench() {
+    }
+
+    static long allocated() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    static void report(String what, long startNanos, long startAllocated, long ops) {
+        long nanos = System.nanoTime() - startNanos;
+        long bytes = allocated() - startAllocated;
+        System.out.printf("%-32s %10.1f нс/оп %10.1f Б/оп%n", what, nanos / (double) ops, bytes / (double) ops);
+    }
+}
@@ -0,0 +1,72 @@
+package test.java.taskmanager.bench;
+
+import main.java.taskmanager.Epic;
+import main.java.taskmanager.InMemoryTaskManager;
+import main.java.taskmanager.SubTask;
+import main.java.taskmanager.Task;
+import main.java.taskmanager.TaskStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("bench")
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class ChurnHeapBenchmark {
+
+    private static final int ROUNDS = 40_000;
+
+    @Test
+    void createDeleteChurn_ShouldKeepHeapSteady() throws InterruptedException {
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        List<WeakReference<Task>> deleted = new ArrayList<>();
+        long baseline = 0;
+        long allocated = Bench.allocated();
+        long start = System.nanoTime();
+        for (int round = 1; round <= ROUNDS; round++) {
+            Epic epic = new Epic(0, "Эпик " + round, "Описание", TaskStatus.NEW);
+            manager.addEpic(epic);
+            for (int i = 0; i < 3; i++) {
+                SubTask subTask = new SubTask(epic.getId(), 0, "Подзадача " + i, "Описание", TaskStatus.NEW);
+                manager.addSubTask(subTask);
+                manager.getSubTaskById(subTask.getId());
+                if (round % 1000 == 0) {
+                    deleted.add(new WeakReference<>(subTask));
+                }
+            }
+            Task task = new Task("Задача " + round, "Описание");
+            task.setStartTime(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(round));
+            task.setDuration(Duration.ofMinutes(1));
+            manager.addTask(task);
+            manager.getTaskById(task.getId());
+            manager.getEpicById(epic.getId());
+            if (round % 1000 == 0) {
+                deleted.add(new WeakReference<>(task));
+                deleted.add(new WeakReference<>(epic));
+            }
+
+            manager.deleteEpicById(epic.getId());
+            manager.deleteTaskById(task.getId());
+            if (round == ROUNDS / 4) {
+                baseline = Bench.usedHeap();
+            }
+        }
+        Bench.report("круг создания и удаления", start, allocated, ROUNDS);
+
+        long growth = Bench.usedHeap() - baseline;
+        System.out.printf("Рост кучи после прогрева: %d Б%n", growth);
+        assertTrue(growth < 8 * 1024 * 1024, "Куча выросла на " + growth + " байт");
+        for (int attempt = 0; attempt < 10 && deleted.stream().anyMatch(ref -> ref.get() != null); attempt++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertTrue(deleted.stream().allMatch(ref -> ref.get() == null), "Удаленные задачи остались в памяти");
+    }
+}
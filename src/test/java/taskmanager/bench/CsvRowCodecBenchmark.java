@@ -0,0 +1,65 @@
+package test.java.taskmanager.bench;
+
+import main.java.taskmanager.CsvRowCodec;
+import main.java.taskmanager.Epic;
+import main.java.taskmanager.SubTask;
+import main.java.taskmanager.Task;
+import main.java.taskmanager.TaskStatus;
+import main.java.taskmanager.TaskType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Tag("bench")
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class CsvRowCodecBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    @Test
+    void writeRow_ComparedToStringFormat() throws IOException {
+        Task[] tasks = new Task[1000];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new Task(i + 100_000, "Задача номер " + i, "Описание задачи для шаблона " + i,
+                    TaskStatus.IN_PROGRESS);
+            tasks[i].setStartTime(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+            tasks[i].setDuration(Duration.ofMinutes(30));
+        }
+        CsvRowCodec codec = new CsvRowCodec();
+        for (int round = 0; round < 3; round++) {
+            Writer out = new BufferedWriter(Writer.nullWriter(), 1 << 16);
+            long allocated = Bench.allocated();
+            long start = System.nanoTime();
+            for (int i = 0; i < ROWS; i++) {
+                out.write(formatted(tasks[i % tasks.length]) + "\n");
+            }
+            Bench.report("String.format", start, allocated, ROWS);
+
+            allocated = Bench.allocated();
+            start = System.nanoTime();
+            for (int i = 0; i < ROWS; i++) {
+                codec.writeRow(tasks[i % tasks.length], out);
+            }
+            Bench.report("CsvRowCodec.writeRow", start, allocated, ROWS);
+        }
+    }
+
+    private static String formatted(Task task) {
+        TaskType type = TaskType.TASK;
+        String epicId = "";
+        if (task instanceof SubTask) {
+            type = TaskType.SUBTASK;
+            epicId = String.valueOf(((SubTask) task).getEpicId());
+        } else if (task instanceof Epic) {
+            type = TaskType.EPIC;
+        }
+        return String.format("%d,%s,%s,%s,%s,%s", task.getId(), type, task.getName(), task.getStatus(),
+                task.getDescription(), epicId);
+    }
+}
@@ -0,0 +1,58 @@
+package test.java.taskmanager.bench;
+
+import main.java.taskmanager.Epic;
+import main.java.taskmanager.InMemoryTaskManager;
+import main.java.taskmanager.SubTask;
+import main.java.taskmanager.TaskStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+@Tag("bench")
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class EpicRollupBenchmark {
+
+    private static final int SUBTASKS = 100_000;
+    private static final int UPDATES = 200_000;
+
+    @Test
+    void updateSubTask_OnLargeEpic() {
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        Epic epic = new Epic(0, "Эпик", "Описание", TaskStatus.NEW);
+        manager.addEpic(epic);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        int[] ids = new int[SUBTASKS];
+
+        long allocated = Bench.allocated();
+        long start = System.nanoTime();
+        for (int i = 0; i < SUBTASKS; i++) {
+            SubTask subTask = new SubTask(epic.getId(), 0, "Подзадача", "Описание", TaskStatus.NEW);
+            subTask.setStartTime(base.plusMinutes(30L * i));
+            subTask.setDuration(Duration.ofMinutes(20));
+            manager.addSubTask(subTask);
+            ids[i] = subTask.getId();
+        }
+        Bench.report("addSubTask", start, allocated, SUBTASKS);
+
+        TaskStatus[] statuses = TaskStatus.values();
+        Random random = new Random(1);
+        for (int round = 0; round < 3; round++) {
+            allocated = Bench.allocated();
+            start = System.nanoTime();
+            for (int i = 0; i < UPDATES; i++) {
+                int index = random.nextInt(SUBTASKS);
+                SubTask subTask = new SubTask(epic.getId(), ids[index], "Подзадача", "Описание",
+                        statuses[random.nextInt(statuses.length)]);
+                subTask.setStartTime(base.plusMinutes(30L * index));
+                subTask.setDuration(Duration.ofMinutes(random.nextInt(20) + 1));
+                manager.updateSubTask(subTask);
+            }
+            Bench.report("updateSubTask", start, allocated, UPDATES);
+        }
+        System.out.println("Статус эпика: " + epic.getStatus() + ", продолжительность: " + epic.getDuration());
+    }
+}
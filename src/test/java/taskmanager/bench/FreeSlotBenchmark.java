@@ -0,0 +1,68 @@
+package test.java.taskmanager.bench;
+
+import main.java.taskmanager.InMemoryTaskManager;
+import main.java.taskmanager.Task;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Random;
+
+@Tag("bench")
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class FreeSlotBenchmark {
+
+    private static final int TASKS = 1_000_000;
+    private static final LocalDateTime BASE = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Test
+    void findFreeSlot_OnDenseCalendar() {
+        for (int gapEvery : new int[] {100, 10_000}) {
+            InMemoryTaskManager manager = new InMemoryTaskManager();
+            LocalDateTime start = BASE;
+            for (int i = 0; i < TASKS; i++) {
+                Task task = new Task("Задача", "Описание");
+                task.setStartTime(start);
+                task.setDuration(Duration.ofMinutes(30));
+                manager.addTask(task);
+                start = start.plusMinutes(i % gapEvery == gapEvery - 1 ? 60 : 30);
+            }
+            int queries = gapEvery == 100 ? 20_000 : 2_000;
+            Random random = new Random(1);
+            query(manager, random, queries);
+
+            System.out.println("Свободный промежуток через каждые " + gapEvery + " задач:");
+            long allocated = Bench.allocated();
+            long started = System.nanoTime();
+            query(manager, random, queries);
+            Bench.report("findFreeSlot", started, allocated, queries);
+
+            manager.setWorkingHours(LocalTime.of(9, 0), LocalTime.of(18, 0));
+            allocated = Bench.allocated();
+            started = System.nanoTime();
+            query(manager, random, queries);
+            Bench.report("findFreeSlot в рабочие часы", started, allocated, queries);
+
+            manager.setWorkingHours(null, null);
+            manager.setAutoSchedule(true);
+            allocated = Bench.allocated();
+            started = System.nanoTime();
+            for (int i = 0; i < 1000; i++) {
+                Task task = new Task("Автоматическая", "Описание");
+                task.setDuration(Duration.ofMinutes(15));
+                manager.addTask(task);
+            }
+            Bench.report("addTask с автоматическим временем", started, allocated, 1000);
+        }
+    }
+
+    private static void query(InMemoryTaskManager manager, Random random, int queries) {
+        for (int i = 0; i < queries; i++) {
+            LocalDateTime after = BASE.plusMinutes(random.nextInt(TASKS * 30));
+            Bench.sink += manager.findFreeSlot(after, Duration.ofMinutes(30)).getMinute();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package test.java.taskmanager.bench;
+
+import main.java.taskmanager.Task;
+import main.java.taskmanager.TaskStatus;
+import main.java.taskmanager.util.IntObjectMap;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+@Tag("bench")
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class IntObjectMapBenchmark {
+
+    private static final int TASKS = 2_000_000;
+
+    @Test
+    void memoryAndGet_ComparedToHashMap() {
+        Task[] tasks = new Task[TASKS];
+        for (int i = 0; i < TASKS; i++) {
+            tasks[i] = new Task(i + 1, "Задача", "Описание", TaskStatus.NEW);
+        }
+        int[] keys = new int[1 << 20];
+        Random random = new Random(1);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = 1 + random.nextInt(TASKS);
+        }
+        measure("HashMap", new HashMap<>(), tasks, keys);
+        measure("IntObjectMap", new IntObjectMap<>(), tasks, keys);
+    }
+
+    private static void measure(String name, Map<Integer, Task> map, Task[] tasks, int[] keys) {
+        long before = Bench.usedHeap();
+        for (Task task : tasks) {
+            map.put(task.getId(), task);
+        }
+        long after = Bench.usedHeap();
+        System.out.printf("%s: %.1f Б на запись%n", name, (after - before) / (double) tasks.length);
+
+        IntObjectMap<Task> primitive = map instanceof IntObjectMap ? (IntObjectMap<Task>) map : null;
+        for (int round = 0; round < 8; round++) {
+            long allocated = Bench.allocated();
+            long start = System.nanoTime();
+            for (int key : keys) {
+                Task task = primitive != null ? primitive.get(key) : map.get(key);
+                Bench.sink += task.getId();
+            }
+            if (round >= 3) {
+                Bench.report(name + ".get", start, allocated, keys.length);
+            }
+        }
+    }
+}
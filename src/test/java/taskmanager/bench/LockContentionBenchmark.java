@@ -0,0 +1,78 @@
+package test.java.taskmanager.bench;
+
+import main.java.taskmanager.ConcurrentTaskManager;
+import main.java.taskmanager.Epic;
+import main.java.taskmanager.SubTask;
+import main.java.taskmanager.TaskStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Tag("bench")
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class LockContentionBenchmark {
+
+    private static final int OPERATIONS = 200_000;
+    private static final int EPICS = 64;
+
+    @Test
+    void subTaskWrites_ByThreadCount() throws Exception {
+        for (int round = 0; round < 2; round++) {
+            for (int threads : new int[] {1, 4, 16, 64}) {
+                long nanos = run(threads);
+                System.out.printf("потоков=%d: %.0f оп/мс%n", threads, OPERATIONS / (nanos / 1e6));
+            }
+        }
+    }
+
+    private static long run(int threads) throws Exception {
+        ConcurrentTaskManager manager = new ConcurrentTaskManager();
+        int[] epicIds = new int[EPICS];
+        for (int i = 0; i < EPICS; i++) {
+            Epic epic = new Epic(0, "Эпик", "Описание", TaskStatus.NEW);
+            manager.addEpic(epic);
+            epicIds[i] = epic.getId();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        int perThread = OPERATIONS / threads;
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                Random random = new Random(thread);
+                List<SubTask> own = new ArrayList<>();
+                for (int i = 0; i < perThread; i++) {
+                    int epicId = epicIds[(thread + random.nextInt(4) * threads) % EPICS];
+                    if (own.size() < 50 || random.nextInt(4) == 0) {
+                        SubTask subTask = new SubTask(epicId, 0, "Подзадача", "Описание", TaskStatus.NEW);
+                        manager.addSubTask(subTask);
+                        own.add(subTask);
+                    } else {
+                        SubTask old = own.get(random.nextInt(own.size()));
+                        manager.updateSubTask(new SubTask(old.getEpicId(), old.getId(), "Подзадача", "Описание",
+                                TaskStatus.DONE));
+                    }
+                }
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long nanos = System.nanoTime() - started;
+        executor.shutdown();
+        return nanos;
+    }
+}
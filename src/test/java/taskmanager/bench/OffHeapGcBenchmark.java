@@ -0,0 +1,99 @@
+package test.java.taskmanager.bench;
+
+import main.java.taskmanager.InMemoryTaskManager;
+import main.java.taskmanager.OffHeapTaskManager;
+import main.java.taskmanager.OffHeapTaskStore;
+import main.java.taskmanager.Task;
+import main.java.taskmanager.TaskManager;
+import main.java.taskmanager.TaskStatus;
+import main.java.taskmanager.util.IntObjectMap;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Паузы сборщика на хранилище и на всем менеджере. Размер задается {@code -Dbench.tasks}
+ * (по умолчанию 1M); для сравнения пауз запускать с {@code -Xlog:gc} и одинаковым {@code -Xmx}.
+ */
+@Tag("bench")
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class OffHeapGcBenchmark {
+
+    private static final int TASKS = Integer.getInteger("bench.tasks", 1_000_000);
+
+    @Test
+    void store_HeapComparedToOffHeap() {
+        churnStore("IntObjectMap", new IntObjectMap<>());
+        churnStore("OffHeapTaskStore", OffHeapTaskStore.forTasks());
+    }
+
+    @Test
+    void manager_HeapComparedToOffHeap() {
+        churnManager("InMemoryTaskManager", new InMemoryTaskManager());
+        try (OffHeapTaskManager manager = new OffHeapTaskManager()) {
+            churnManager("OffHeapTaskManager", manager);
+        }
+    }
+
+    private static void churnStore(String name, Map<Integer, Task> store) {
+        long[] gc = gcTotals();
+        long start = System.nanoTime();
+        for (int i = 1; i <= TASKS; i++) {
+            store.put(i, task(i, 0));
+        }
+        Random random = new Random(1);
+        for (int k = 0; k < TASKS; k++) {
+            int id = 1 + random.nextInt(TASKS);
+            store.put(id, task(id, k));
+            Bench.sink += store.get(1 + random.nextInt(TASKS)).getId();
+        }
+        report(name, start, gc);
+    }
+
+    private static void churnManager(String name, TaskManager manager) {
+        long[] gc = gcTotals();
+        long start = System.nanoTime();
+        for (int i = 1; i <= TASKS; i++) {
+            manager.addTask(task(i, 0));
+        }
+        Random random = new Random(1);
+        for (int k = 0; k < TASKS; k++) {
+            manager.updateTask(task(1 + random.nextInt(TASKS), k));
+        }
+        report(name, start, gc);
+    }
+
+    private static Task task(int id, int version) {
+        Task task = new Task(id, "Задача " + id + " v" + version, "Описание задачи номер " + id,
+                TaskStatus.values()[version % 3]);
+        task.setStartTime(LocalDateTime.of(2020, 1, 1, 0, 0).plusMinutes(30L * id));
+        task.setDuration(Duration.ofMinutes(20));
+        return task;
+    }
+
+    private static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += collector.getCollectionCount();
+            millis += collector.getCollectionTime();
+        }
+        return new long[] {count, millis};
+    }
+
+    private static void report(String name, long start, long[] gcBefore) {
+        long[] gcAfter = gcTotals();
+        long fullStart = System.nanoTime();
+        System.gc();
+        System.out.printf("%s: %d задач за %.0f мс, сборок %d, в сборке %d мс, полная сборка %.0f мс%n",
+                name, TASKS, (System.nanoTime() - start) / 1e6, gcAfter[0] - gcBefore[0],
+                gcAfter[1] - gcBefore[1], (System.nanoTime() - fullStart) / 1e6);
+    }
+}
@@ -0,0 +1,85 @@
+package test.java.taskmanager.bench;
+
+import main.java.taskmanager.Task;
+import main.java.taskmanager.TaskStatus;
+import main.java.taskmanager.TaskTimeIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+@Tag("bench")
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class TimeIndexAllocationBenchmark {
+
+    private static final int TASKS = 100_000;
+    private static final int OPERATIONS = 1_000_000;
+
+    @Test
+    void overlapAndHash_ShouldNotAllocate() {
+        TaskTimeIndex index = new TaskTimeIndex();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= TASKS; i++) {
+            Task task = new Task(i, "Задача " + i, "Описание", TaskStatus.NEW);
+            task.setStartTime(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(30L * i));
+            task.setDuration(Duration.ofMinutes(20));
+            index.reserve(task);
+            tasks.add(task);
+        }
+        Set<Task> set = new HashSet<>(tasks);
+        Task probe = new Task(TASKS + 1, "Пробная", "Описание", TaskStatus.NEW);
+        probe.setDuration(Duration.ofMinutes(20));
+
+        for (int round = 0; round < 3; round++) {
+            Random random = new Random(round);
+            long allocated = Bench.allocated();
+            long start = System.nanoTime();
+            for (int i = 0; i < OPERATIONS; i++) {
+                Bench.sink += tasks.get(random.nextInt(TASKS)).getEndTime().getMinute();
+            }
+            Bench.report("getEndTime", start, allocated, OPERATIONS);
+
+            allocated = Bench.allocated();
+            start = System.nanoTime();
+            for (int i = 0; i < OPERATIONS; i++) {
+                if (index.hasOverlap(tasks.get(random.nextInt(TASKS)))) {
+                    Bench.sink++;
+                }
+            }
+            Bench.report("hasOverlap", start, allocated, OPERATIONS);
+
+            allocated = Bench.allocated();
+            start = System.nanoTime();
+            for (int i = 0; i < OPERATIONS; i++) {
+                probe.setStartTime(tasks.get(random.nextInt(TASKS)).getStartTime().plusMinutes(25));
+                if (index.hasOverlap(probe)) {
+                    Bench.sink++;
+                }
+            }
+            Bench.report("hasOverlap с новым startTime", start, allocated, OPERATIONS);
+
+            allocated = Bench.allocated();
+            start = System.nanoTime();
+            for (int i = 0; i < OPERATIONS; i++) {
+                index.reserve(tasks.get(random.nextInt(TASKS)));
+            }
+            Bench.report("reserve на том же месте", start, allocated, OPERATIONS);
+
+            allocated = Bench.allocated();
+            start = System.nanoTime();
+            for (int i = 0; i < OPERATIONS; i++) {
+                if (set.contains(tasks.get(random.nextInt(TASKS)))) {
+                    Bench.sink++;
+                }
+            }
+            Bench.report("HashSet.contains", start, allocated, OPERATIONS);
+        }
+    }
+}
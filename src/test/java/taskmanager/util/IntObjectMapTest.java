@@ -0,0 +1,54 @@
+package test.java.taskmanager.util;
+
+import main.java.taskmanager.util.IntObjectMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectMapTest {
+
+    @Test
+    @DisplayName("Случайные вставки и удаления должны давать тот же результат, что и HashMap")
+    void putAndRemove_RandomOperations_ShouldMatchHashMap() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000) - 100;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map);
+        for (int key = -100; key < 4_900; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    @DisplayName("clear должен очищать карту и позволять повторное заполнение")
+    void clear_AfterPuts_ShouldRemoveAllEntries() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "v" + i);
+        }
+
+        map.clear();
+        map.put(7, "семь");
+
+        assertEquals(1, map.size());
+        assertNull(map.get(8));
+        assertEquals("семь", map.get(7));
+    }
+}
@@ -1,17 +1,32 @@
 package java.taskmanager;
 
 import main.java.taskmanager.Epic;
+import main.java.taskmanager.EventListenerStats;
 import main.java.taskmanager.InMemoryTaskManager;
+import main.java.taskmanager.Page;
+import main.java.taskmanager.StringPool;
 import main.java.taskmanager.SubTask;
 import main.java.taskmanager.Task;
+import main.java.taskmanager.TaskDependencies;
+import main.java.taskmanager.TaskEventBus;
+import main.java.taskmanager.TaskSnapshot;
 import main.java.taskmanager.TaskStatus;
+import main.java.taskmanager.exception.NotFoundException;
+import main.java.taskmanager.exception.TaskValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -335,7 +350,7 @@ class InMemoryTaskManagerTest {
         assertTrue(taskManager.getAllSubTasks().contains(subTask2));
 
         Epic updatedEpic = taskManager.getEpicById(epic.getId());
-        assertEquals(2, updatedEpic.getSubTaskIds().size());
+        assertEquals(List.of(subTask2.getId()), updatedEpic.getSubTaskIds());
     }
 
     @Test
@@ -393,4 +408,606 @@ class InMemoryTaskManagerTest {
         SubTask subTask = new SubTask(epic.getId(), 0, "Подзадача", "Описание", TaskStatus.NEW);
         taskManager.addSubTask(subTask);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Добавление пересекающейся по времени задачи должно выбросить исключение")
+    void addTask_OverlappingTime_ShouldThrowValidationException() {
+        Task first = new Task("Первая", "Описание");
+        first.setStartTime(LocalDateTime.of(2025, 1, 1, 10, 0));
+        first.setDuration(Duration.ofMinutes(60));
+        taskManager.addTask(first);
+
+        Task overlapping = new Task("Вторая", "Описание");
+        overlapping.setStartTime(LocalDateTime.of(2025, 1, 1, 10, 30));
+        overlapping.setDuration(Duration.ofMinutes(60));
+
+        assertThrows(TaskValidationException.class, () -> taskManager.addTask(overlapping));
+
+        overlapping.setStartTime(LocalDateTime.of(2025, 1, 1, 11, 0));
+        taskManager.addTask(overlapping);
+        assertEquals(2, taskManager.getAllTasks().size());
+    }
+
+    @Test
+    @DisplayName("Список по приоритету должен быть отсортирован по времени и обновляться при удалении")
+    void getPrioritizedTasks_ShouldFollowAddsAndDeletes() {
+        Task late = new Task("Поздняя", "Описание");
+        late.setStartTime(LocalDateTime.of(2025, 1, 2, 9, 0));
+        late.setDuration(Duration.ofMinutes(30));
+        Task early = new Task("Ранняя", "Описание");
+        early.setStartTime(LocalDateTime.of(2025, 1, 1, 9, 0));
+        early.setDuration(Duration.ofMinutes(30));
+        Task withoutTime = new Task("Без времени", "Описание");
+        taskManager.addTask(late);
+        taskManager.addTask(early);
+        taskManager.addTask(withoutTime);
+
+        assertEquals(List.of(early, late), taskManager.getPrioritizedTasks());
+
+        taskManager.deleteTaskById(early.getId());
+        assertEquals(List.of(late), taskManager.getPrioritizedTasks());
+    }
+
+    @Test
+    @DisplayName("Статус и время эпика должны пересчитываться при изменении и удалении подзадач")
+    void epicRollup_SubTaskChanges_ShouldUpdateStatusAndTime() {
+        Epic epic = new Epic(0, "Эпик", "Описание эпика", TaskStatus.NEW);
+        taskManager.addEpic(epic);
+        SubTask first = new SubTask(epic.getId(), 0, "Подзадача 1", "Описание", TaskStatus.DONE);
+        first.setStartTime(LocalDateTime.of(2025, 1, 1, 9, 0));
+        first.setDuration(Duration.ofMinutes(30));
+        SubTask second = new SubTask(epic.getId(), 0, "Подзадача 2", "Описание", TaskStatus.IN_PROGRESS);
+        second.setStartTime(LocalDateTime.of(2025, 1, 1, 12, 0));
+        second.setDuration(Duration.ofMinutes(60));
+        taskManager.addSubTask(first);
+        taskManager.addSubTask(second);
+
+        assertEquals(TaskStatus.IN_PROGRESS, epic.getStatus());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 9, 0), epic.getStartTime());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 13, 0), epic.getEndTime());
+        assertEquals(Duration.ofMinutes(90), epic.getDuration());
+
+        taskManager.deleteSubTaskById(second.getId());
+
+        assertEquals(TaskStatus.DONE, epic.getStatus());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 9, 30), epic.getEndTime());
+        assertEquals(Duration.ofMinutes(30), epic.getDuration());
+    }
+
+    @Test
+    @DisplayName("Снимок должен переиспользоваться без изменений и обновляться после записи")
+    void getSnapshot_ShouldChangeVersionOnlyAfterWrites() {
+        taskManager.setSnapshotReads(true);
+        Task task = new Task("Задача", "Описание");
+        taskManager.addTask(task);
+
+        TaskSnapshot first = taskManager.getSnapshot();
+        assertSame(first, taskManager.getSnapshot());
+        assertSame(first.getTasks(), taskManager.getAllTasks());
+        assertEquals(List.of(task), first.getTasks());
+
+        taskManager.deleteTaskById(task.getId());
+
+        TaskSnapshot second = taskManager.getSnapshot();
+        assertTrue(second.getVersion() > first.getVersion());
+        assertTrue(second.getTasks().isEmpty());
+        assertEquals(List.of(task), first.getTasks());
+        assertThrows(UnsupportedOperationException.class, () -> second.getTasks().add(task));
+    }
+
+    @Test
+    @DisplayName("Изменения эпика после получения снимка не должны попадать в старый снимок")
+    void getSnapshot_EpicChangedAfterwards_ShouldKeepOldState() {
+        Epic epic = new Epic(0, "Эпик", "Описание", TaskStatus.NEW);
+        taskManager.addEpic(epic);
+        SubTask first = new SubTask(epic.getId(), 0, "Подзадача 1", "Описание", TaskStatus.NEW);
+        taskManager.addSubTask(first);
+
+        TaskSnapshot snapshot = taskManager.getSnapshot();
+        Epic before = snapshot.getEpics().get(0);
+
+        SubTask second = new SubTask(epic.getId(), 0, "Подзадача 2", "Описание", TaskStatus.DONE);
+        second.setStartTime(LocalDateTime.of(2025, 1, 1, 9, 0));
+        second.setDuration(Duration.ofMinutes(30));
+        taskManager.addSubTask(second);
+        taskManager.updateSubTask(new SubTask(epic.getId(), first.getId(), "Подзадача 1", "Описание",
+                TaskStatus.DONE));
+
+        assertEquals(TaskStatus.DONE, taskManager.getEpicById(epic.getId()).getStatus());
+        assertEquals(TaskStatus.NEW, before.getStatus());
+        assertEquals(1, before.getSubTaskIds().size());
+        assertEquals(first.getId(), before.getSubTaskIds().getInt(0));
+        assertNull(before.getStartTime());
+        assertNull(before.getEndTime());
+        assertEquals(List.of(first), snapshot.getSubTasks());
+        assertTrue(taskManager.getSnapshot().getVersion() > snapshot.getVersion());
+    }
+
+    @Test
+    @DisplayName("Снимки разных менеджеров с одной версией должны различаться по эпохе")
+    void getSnapshot_SameVersionInAnotherManager_ShouldHaveDifferentEpoch() {
+        InMemoryTaskManager restarted = new InMemoryTaskManager();
+        TaskSnapshot first = taskManager.getSnapshot();
+        TaskSnapshot other = restarted.getSnapshot();
+
+        taskManager.addTask(new Task("Задача", "Описание"));
+
+        assertEquals(first.getVersion(), other.getVersion());
+        assertNotEquals(first.getEpoch(), other.getEpoch());
+        assertEquals(first.getEpoch(), taskManager.getSnapshot().getEpoch());
+    }
+
+    @Test
+    @DisplayName("Постраничный обход не должен терять и дублировать задачи при вставках между запросами")
+    void getTasks_PagedWithConcurrentInserts_ShouldVisitEachTaskOnce() {
+        for (int i = 0; i < 5; i++) {
+            taskManager.addTask(new Task("Задача " + i, "Описание"));
+        }
+
+        List<Integer> visited = new ArrayList<>();
+        Page<Task> page = taskManager.getTasks(2, null);
+        while (true) {
+            page.getItems().forEach(task -> visited.add(task.getId()));
+            if (!page.hasNext()) {
+                break;
+            }
+            taskManager.addTask(new Task("Новая задача", "Описание"));
+            page = taskManager.getTasks(2, page.getNextCursor());
+        }
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8), visited);
+        assertThrows(IllegalArgumentException.class, () -> taskManager.getTasks(0, null));
+    }
+
+    @Test
+    @DisplayName("Постраничный обход должен пропускать удаленные задачи и видеть только свой тип")
+    void getSubTasks_PagedWithDeletes_ShouldSkipRemoved() {
+        Epic epic = new Epic(0, "Эпик", "Описание", TaskStatus.NEW);
+        taskManager.addEpic(epic);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            SubTask subTask = new SubTask(epic.getId(), 0, "Подзадача " + i, null, TaskStatus.NEW);
+            taskManager.addSubTask(subTask);
+            if (i % 4 == 3) {
+                expected.add(subTask.getId());
+            }
+            taskManager.addTask(new Task("Задача " + i, null));
+        }
+        for (SubTask subTask : taskManager.getAllSubTasks()) {
+            if (!expected.contains(subTask.getId())) {
+                taskManager.deleteSubTaskById(subTask.getId());
+            }
+        }
+
+        List<Integer> visited = new ArrayList<>();
+        Page<SubTask> page = taskManager.getSubTasks(7, null);
+        visited.addAll(page.getItems().stream().map(Task::getId).toList());
+        while (page.hasNext()) {
+            page = taskManager.getSubTasks(7, page.getNextCursor());
+            visited.addAll(page.getItems().stream().map(Task::getId).toList());
+        }
+
+        assertEquals(expected, visited);
+        assertEquals(List.of(epic), taskManager.getEpics(10, null).getItems());
+        taskManager.deleteAllSubTasks();
+        assertTrue(taskManager.getSubTasks(10, null).getItems().isEmpty());
+        assertEquals(10, taskManager.getTasks(10, null).getItems().size());
+    }
+
+    @Test
+    @DisplayName("Запросы по статусу должны учитывать добавление, обновление и удаление")
+    void getByStatus_AfterMutations_ShouldReturnMatchingItems() {
+        Epic epic = new Epic(0, "Эпик", "Описание эпика", TaskStatus.NEW);
+        taskManager.addEpic(epic);
+        SubTask first = new SubTask(epic.getId(), 0, "Подзадача 1", "Описание", TaskStatus.NEW);
+        SubTask second = new SubTask(epic.getId(), 0, "Подзадача 2", "Описание", TaskStatus.NEW);
+        taskManager.addSubTask(first);
+        taskManager.addSubTask(second);
+
+        SubTask started = new SubTask(epic.getId(), second.getId(), "Подзадача 2", "Описание", TaskStatus.IN_PROGRESS);
+        taskManager.updateSubTask(started);
+
+        assertEquals(List.of(first), taskManager.getSubTasksByStatus(TaskStatus.NEW));
+        assertEquals(List.of(started), taskManager.getEpicSubTasks(epic.getId(), TaskStatus.IN_PROGRESS));
+        assertEquals(List.of(epic), taskManager.getEpicsByStatus(TaskStatus.IN_PROGRESS));
+        assertTrue(taskManager.getEpicsByStatus(TaskStatus.NEW).isEmpty());
+
+        taskManager.deleteSubTaskById(started.getId());
+
+        assertTrue(taskManager.getSubTasksByStatus(TaskStatus.IN_PROGRESS).isEmpty());
+        assertEquals(List.of(epic), taskManager.getEpicsByStatus(TaskStatus.NEW));
+    }
+
+    @Test
+    @DisplayName("Полнотекстовый поиск должен ранжировать совпадения в названии выше и забывать удаленные задачи")
+    void search_ByNameAndDescription_ShouldRankAndForgetDeleted() {
+        Task inName = new Task("Починить ёлку", "Проверить гирлянду");
+        Task inDescription = new Task("Праздник", "Нарядить елку к вечеру");
+        Task other = new Task("Отчет", "Квартальный отчет");
+        taskManager.addTask(inName);
+        taskManager.addTask(inDescription);
+        taskManager.addTask(other);
+
+        assertEquals(List.of(inName, inDescription), taskManager.search("ЕЛКУ", 10));
+        assertEquals(List.of(inName), taskManager.search("гирл* починить", 10));
+        assertTrue(taskManager.search("елку отчет", 10).isEmpty());
+
+        taskManager.deleteTaskById(inName.getId());
+
+        assertEquals(List.of(inDescription), taskManager.search("елку", 10));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.search("елку", 0));
+    }
+
+    @Test
+    @DisplayName("Поиск по префиксу должен учитывать все подходящие термы, даже если их больше 256")
+    void search_PrefixMatchingManyTerms_ShouldRankAcrossAllOfThem() {
+        for (int i = 0; i < 300; i++) {
+            taskManager.addTask(new Task(String.format("Код%03d", i), null));
+        }
+        Task best = new Task("Код999 код999", "Описание");
+        taskManager.addTask(best);
+
+        assertEquals(301, taskManager.search("код*", 1000).size());
+        assertEquals(List.of(best), taskManager.search("код*", 1));
+        assertEquals(List.of(best), taskManager.search("код* описание", 10));
+    }
+
+    @Test
+    @DisplayName("Окно календаря должно возвращать задачи, начинающиеся в интервале и идущие в момент времени")
+    void getPrioritizedTasks_InWindow_ShouldReturnOnlyWindowTasks() {
+        Task monday = new Task("Понедельник", "Описание");
+        monday.setStartTime(LocalDateTime.of(2025, 1, 6, 9, 0));
+        monday.setDuration(Duration.ofMinutes(60));
+        Task tuesday = new Task("Вторник", "Описание");
+        tuesday.setStartTime(LocalDateTime.of(2025, 1, 7, 9, 0));
+        tuesday.setDuration(Duration.ofMinutes(60));
+        Task nextWeek = new Task("Следующая неделя", "Описание");
+        nextWeek.setStartTime(LocalDateTime.of(2025, 1, 13, 9, 0));
+        nextWeek.setDuration(Duration.ofMinutes(60));
+        taskManager.addTask(nextWeek);
+        taskManager.addTask(tuesday);
+        taskManager.addTask(monday);
+
+        assertEquals(List.of(monday, tuesday), taskManager.getPrioritizedTasks(
+                LocalDateTime.of(2025, 1, 6, 0, 0), LocalDateTime.of(2025, 1, 13, 9, 0)));
+        assertEquals(List.of(tuesday), taskManager.getActiveTasks(LocalDateTime.of(2025, 1, 7, 9, 30)));
+        assertTrue(taskManager.getActiveTasks(LocalDateTime.of(2025, 1, 7, 10, 0)).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> taskManager.getPrioritizedTasks(
+                LocalDateTime.of(2025, 1, 7, 0, 0), LocalDateTime.of(2025, 1, 6, 0, 0)));
+    }
+
+    @Test
+    @DisplayName("Поиск свободного окна должен учитывать занятые интервалы и рабочие часы")
+    void findFreeSlot_WithBusyCalendar_ShouldReturnEarliestGap() {
+        Task morning = new Task("Утро", "Описание");
+        morning.setStartTime(LocalDateTime.of(2025, 1, 6, 9, 0));
+        morning.setDuration(Duration.ofMinutes(60));
+        Task noon = new Task("Полдень", "Описание");
+        noon.setStartTime(LocalDateTime.of(2025, 1, 6, 10, 30));
+        noon.setDuration(Duration.ofMinutes(60));
+        taskManager.addTask(morning);
+        taskManager.addTask(noon);
+
+        LocalDateTime after = LocalDateTime.of(2025, 1, 6, 9, 15);
+        assertEquals(LocalDateTime.of(2025, 1, 6, 10, 0), taskManager.findFreeSlot(after, Duration.ofMinutes(30)));
+        assertEquals(LocalDateTime.of(2025, 1, 6, 11, 30), taskManager.findFreeSlot(after, Duration.ofMinutes(45)));
+
+        taskManager.setWorkingHours(LocalTime.of(9, 0), LocalTime.of(12, 0));
+        assertEquals(LocalDateTime.of(2025, 1, 7, 9, 0), taskManager.findFreeSlot(after, Duration.ofMinutes(45)));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.findFreeSlot(after, Duration.ofHours(4)));
+    }
+
+    @Test
+    @DisplayName("Автопланирование должно ставить задачу без времени в ближайшее свободное окно")
+    void addTask_WithAutoSchedule_ShouldPlaceTaskWithoutOverlap() {
+        taskManager.setAutoSchedule(true);
+        Task first = new Task("Первая", "Описание");
+        first.setDuration(Duration.ofMinutes(30));
+        Task second = new Task("Вторая", "Описание");
+        second.setDuration(Duration.ofMinutes(30));
+        taskManager.addTask(first);
+        taskManager.addTask(second);
+
+        assertNotNull(first.getStartTime());
+        assertEquals(first.getEndTime(), second.getStartTime());
+        assertEquals(List.of(first, second), taskManager.getPrioritizedTasks());
+    }
+
+    @Test
+    @DisplayName("Пакетное добавление должно отклоняться целиком при пересечении внутри пакета")
+    void addAll_WithOverlapInsideBatch_ShouldAddNothing() {
+        Task first = new Task("Первая", "Описание");
+        first.setStartTime(LocalDateTime.of(2025, 1, 6, 9, 0));
+        first.setDuration(Duration.ofMinutes(60));
+        Task second = new Task("Вторая", "Описание");
+        second.setStartTime(LocalDateTime.of(2025, 1, 6, 9, 30));
+        second.setDuration(Duration.ofMinutes(60));
+
+        assertThrows(TaskValidationException.class, () -> taskManager.addAll(List.of(first, second)));
+        assertTrue(taskManager.getAllTasks().isEmpty());
+        assertTrue(taskManager.getPrioritizedTasks().isEmpty());
+        assertEquals(0, first.getId());
+        assertEquals(0, second.getId());
+
+        second.setStartTime(LocalDateTime.of(2025, 1, 6, 10, 0));
+        taskManager.addAll(List.of(first, second));
+        assertEquals(List.of(first, second), taskManager.getPrioritizedTasks());
+        assertEquals(1, first.getId());
+        assertEquals(2, second.getId());
+    }
+
+    @Test
+    @DisplayName("Пакетное обновление и удаление должны пересчитывать эпик и не применяться частично")
+    void updateAllAndDeleteAll_ShouldRecomputeEpicAndBeAtomic() {
+        Epic epic = new Epic(0, "Эпик", "Описание эпика", TaskStatus.NEW);
+        taskManager.addEpic(epic);
+        SubTask first = new SubTask(epic.getId(), 0, "Подзадача 1", "Описание", TaskStatus.NEW);
+        SubTask second = new SubTask(epic.getId(), 0, "Подзадача 2", "Описание", TaskStatus.NEW);
+        taskManager.addAll(List.of(first, second));
+
+        taskManager.updateAll(List.of(
+                new SubTask(epic.getId(), first.getId(), "Подзадача 1", "Описание", TaskStatus.DONE),
+                new SubTask(epic.getId(), second.getId(), "Подзадача 2", "Описание", TaskStatus.DONE)));
+        assertEquals(TaskStatus.DONE, taskManager.getEpicById(epic.getId()).getStatus());
+
+        assertThrows(NotFoundException.class, () -> taskManager.deleteAll(List.of(first.getId(), 999)));
+        assertEquals(2, taskManager.getAllSubTasks().size());
+        assertThrows(NotFoundException.class, () -> taskManager.updateAll(List.of(
+                new SubTask(999, first.getId(), "Подзадача 1", "Описание", TaskStatus.NEW))));
+        assertThrows(NotFoundException.class, () -> taskManager.addAll(List.of(
+                new SubTask(999, 0, "Подзадача 3", "Описание", TaskStatus.NEW))));
+
+        taskManager.deleteAll(List.of(first.getId(), second.getId()));
+        assertTrue(taskManager.getAllSubTasks().isEmpty());
+        assertEquals(TaskStatus.NEW, taskManager.getEpicById(epic.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Удаление эпика должно каскадно удалять подзадачи и очищать историю и индексы")
+    void deleteEpicById_ShouldCascadeAndReleaseDeletedItems() throws InterruptedException {
+        Epic epic = new Epic(0, "Эпик", "Описание эпика", TaskStatus.NEW);
+        taskManager.addEpic(epic);
+        SubTask subTask = new SubTask(epic.getId(), 0, "Подзадача", "Описание", TaskStatus.NEW);
+        subTask.setStartTime(LocalDateTime.of(2025, 1, 6, 9, 0));
+        subTask.setDuration(Duration.ofMinutes(30));
+        taskManager.addSubTask(subTask);
+        taskManager.getEpicById(epic.getId());
+        taskManager.getSubTaskById(subTask.getId());
+        WeakReference<SubTask> deleted = new WeakReference<>(subTask);
+        int subTaskId = subTask.getId();
+        subTask = null;
+
+        taskManager.deleteEpicById(epic.getId());
+
+        assertTrue(taskManager.getAllSubTasks().isEmpty());
+        assertTrue(taskManager.getHistory().isEmpty());
+        assertTrue(taskManager.getPrioritizedTasks().isEmpty());
+        assertTrue(taskManager.search("подзадача", 10).isEmpty());
+        assertNull(taskManager.getSubTaskById(subTaskId));
+        for (int i = 0; i < 50 && deleted.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(deleted.get());
+    }
+
+    @Test
+    @DisplayName("С пулом строк одинаковые названия задач должны храниться одним объектом")
+    void addTask_WithStringPool_ShouldShareEqualStrings() {
+        StringPool pool = new StringPool();
+        taskManager.setStringPool(pool);
+        Task first = new Task(new String("Шаблон"), new String("Описание шаблона"));
+        Task second = new Task(new String("Шаблон"), new String("Описание шаблона"));
+
+        taskManager.addTask(first);
+        taskManager.addTask(second);
+
+        assertSame(first.getName(), second.getName());
+        assertSame(first.getDescription(), second.getDescription());
+        assertEquals(2, pool.getStats().getHits());
+        assertEquals(0.5, pool.getStats().getHitRate());
+    }
+
+    @Test
+    @DisplayName("Кэш окончания и хэша задачи должен сбрасываться при изменении полей")
+    void task_AfterChange_ShouldRecalculateCachedEndAndHash() {
+        Task task = new Task(1, "Задача", "Описание", TaskStatus.NEW);
+        task.setStartTime(LocalDateTime.of(2025, 1, 6, 9, 0));
+        task.setDuration(Duration.ofMinutes(30));
+        int hash = task.hashCode();
+        long endMinute = task.getEndMinute();
+
+        task.setDuration(Duration.ofMinutes(45));
+        task.setName("Другая задача");
+
+        assertEquals(LocalDateTime.of(2025, 1, 6, 9, 45), task.getEndTime());
+        assertEquals(endMinute + 15, task.getEndMinute());
+        assertEquals(Task.toEpochMinute(task.getStartTime()), task.getStartMinute());
+        assertNotEquals(hash, task.hashCode());
+        assertEquals(new Task(1, "Другая задача", "Описание", TaskStatus.NEW).hashCode(), task.hashCode());
+    }
+
+    @Test
+    @DisplayName("Шина событий должна пачками доставлять слушателю создание, пересчет эпика и удаление")
+    void eventBus_AfterMutations_ShouldDeliverEventsInOrder() throws InterruptedException {
+        List<String> received = new CopyOnWriteArrayList<>();
+        try (TaskEventBus bus = new TaskEventBus(1024)) {
+            bus.subscribe("журнал", events -> events.forEach(
+                    event -> received.add(event.getType() + " " + event.getTaskType())));
+            taskManager.setEventBus(bus);
+            Epic epic = new Epic(0, "Эпик", "Описание эпика", TaskStatus.NEW);
+            taskManager.addEpic(epic);
+            taskManager.addSubTask(new SubTask(epic.getId(), 0, "Подзадача", null, TaskStatus.DONE));
+            taskManager.deleteEpicById(epic.getId());
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (received.size() < bus.getPublished() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(List.of("CREATED EPIC", "CREATED SUBTASK", "EPIC_ROLLED_UP EPIC", "DELETED EPIC",
+                    "DELETED SUBTASK"), received);
+            EventListenerStats stats = bus.getStats().get(0);
+            assertEquals("журнал", stats.getName());
+            assertEquals(5, stats.getDelivered());
+            assertEquals(0, stats.getDropped());
+            assertEquals(0, stats.getLag());
+        }
+    }
+
+    @Test
+    @DisplayName("Зависимости должны сдвигать раннее начало, пересчитываться при изменении и запрещать циклы")
+    void addDependency_ShouldShiftEarliestStartAndRejectCycles() {
+        Task design = new Task("Проект", null);
+        design.setStartTime(LocalDateTime.of(2025, 1, 6, 9, 0));
+        design.setDuration(Duration.ofHours(2));
+        Task build = new Task("Сборка", null);
+        build.setDuration(Duration.ofMinutes(30));
+        Task review = new Task("Ревью", null);
+        review.setStartTime(LocalDateTime.of(2025, 1, 6, 8, 0));
+        review.setDuration(Duration.ofMinutes(15));
+        taskManager.addTask(design);
+        taskManager.addTask(build);
+        taskManager.addTask(review);
+
+        taskManager.addDependency(build.getId(), design.getId());
+        taskManager.addDependency(review.getId(), build.getId());
+
+        TaskDependencies dependencies = taskManager.getDependencies(review.getId());
+        assertEquals(LocalDateTime.of(2025, 1, 6, 11, 30), dependencies.getEarliestStart());
+        assertEquals(List.of(design.getId(), build.getId(), review.getId()), dependencies.getCriticalPath());
+        assertThrows(TaskValidationException.class, () -> taskManager.addDependency(design.getId(), review.getId()));
+
+        Task longerDesign = new Task(design.getId(), "Проект", null, TaskStatus.IN_PROGRESS);
+        longerDesign.setStartTime(design.getStartTime());
+        longerDesign.setDuration(Duration.ofHours(3));
+        taskManager.updateTask(longerDesign);
+        assertEquals(LocalDateTime.of(2025, 1, 6, 12, 45),
+                taskManager.getDependencies(review.getId()).getEarliestFinish());
+        assertEquals(List.of(design.getId(), build.getId(), review.getId()),
+                taskManager.getCriticalPath().stream().map(Task::getId).toList());
+
+        taskManager.deleteTaskById(build.getId());
+        dependencies = taskManager.getDependencies(review.getId());
+        assertTrue(dependencies.getDependsOn().isEmpty());
+        assertEquals(LocalDateTime.of(2025, 1, 6, 8, 0), dependencies.getEarliestStart());
+    }
+
+    @Test
+    @DisplayName("Подзадача несуществующего эпика не должна добавляться и занимать время или ID")
+    void addSubTask_MissingEpic_ShouldThrowBeforeAnyChange() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        try (TaskEventBus bus = new TaskEventBus(1024)) {
+            bus.subscribe("журнал", events -> events.forEach(event -> received.add(event.getType().name())));
+            taskManager.setEventBus(bus);
+            SubTask orphan = new SubTask(999, 0, "Подзадача", null, TaskStatus.NEW);
+            orphan.setStartTime(LocalDateTime.of(2025, 1, 6, 9, 0));
+            orphan.setDuration(Duration.ofHours(1));
+
+            assertThrows(NotFoundException.class, () -> taskManager.addSubTask(orphan));
+
+            assertTrue(taskManager.getAllSubTasks().isEmpty());
+            assertTrue(taskManager.getPrioritizedTasks().isEmpty());
+            assertTrue(taskManager.search("Подзадача", 10).isEmpty());
+            assertEquals(0, bus.getPublished());
+            Task next = new Task("Задача", null);
+            next.setStartTime(LocalDateTime.of(2025, 1, 6, 9, 0));
+            next.setDuration(Duration.ofHours(1));
+            taskManager.addTask(next);
+            assertEquals(1, next.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Перенос подзадачи в несуществующий эпик не должен менять подзадачу и индексы")
+    void updateSubTask_MissingEpic_ShouldThrowBeforeAnyChange() {
+        Epic epic = new Epic(0, "Эпик", "Описание", TaskStatus.NEW);
+        taskManager.addEpic(epic);
+        SubTask subTask = new SubTask(epic.getId(), 0, "Подзадача", null, TaskStatus.NEW);
+        taskManager.addSubTask(subTask);
+        SubTask moved = new SubTask(999, subTask.getId(), "Перенесенная", null, TaskStatus.DONE);
+        moved.setStartTime(LocalDateTime.of(2025, 1, 6, 9, 0));
+        moved.setDuration(Duration.ofHours(1));
+
+        assertThrows(NotFoundException.class, () -> taskManager.updateSubTask(moved));
+
+        assertSame(subTask, taskManager.getSubTaskById(subTask.getId()));
+        assertEquals(List.of(subTask.getId()), epic.getSubTaskIds());
+        assertEquals(TaskStatus.NEW, epic.getStatus());
+        assertTrue(taskManager.getPrioritizedTasks().isEmpty());
+        assertTrue(taskManager.search("Перенесенная", 10).isEmpty());
+        assertTrue(taskManager.getSubTasksByStatus(TaskStatus.DONE).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Удаление и перенос подзадач должны оставлять у эпиков ровно их оставшиеся подзадачи")
+    void deleteAndMoveSubTasks_ShouldKeepEpicLinks() {
+        Epic epic = new Epic(0, "Эпик", "Описание", TaskStatus.NEW);
+        Epic other = new Epic(0, "Другой эпик", "Описание", TaskStatus.NEW);
+        taskManager.addEpic(epic);
+        taskManager.addEpic(other);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            SubTask subTask = new SubTask(epic.getId(), 0, "Подзадача " + i, null, TaskStatus.NEW);
+            taskManager.addSubTask(subTask);
+            ids.add(subTask.getId());
+        }
+
+        taskManager.deleteSubTaskById(ids.get(1));
+        taskManager.updateSubTask(new SubTask(other.getId(), ids.get(2), "Подзадача 2", null, TaskStatus.DONE));
+        taskManager.deleteAll(List.of(ids.get(0), ids.get(4)));
+
+        assertEquals(Set.of(ids.get(3), ids.get(5)), Set.copyOf(epic.getSubTaskIds()));
+        assertEquals(List.of(ids.get(2)), other.getSubTaskIds());
+        taskManager.deleteSubTaskById(ids.get(5));
+        taskManager.deleteSubTaskById(ids.get(3));
+        assertTrue(epic.getSubTaskIds().isEmpty());
+        assertEquals(TaskStatus.DONE, other.getStatus());
+    }
+
+    @Test
+    @DisplayName("Удаленные задачи, эпики и подзадачи не должны оставаться ни в одном индексе и в истории")
+    void createDelete_ShouldLeaveNothingInIndexesAndHistory() {
+        for (int round = 1; round <= 50; round++) {
+            Epic epic = new Epic(0, "Эпик " + round, "Описание", TaskStatus.NEW);
+            taskManager.addEpic(epic);
+            SubTask subTask = new SubTask(epic.getId(), 0, "Подзадача " + round, "Описание", TaskStatus.DONE);
+            subTask.setStartTime(LocalDateTime.of(2025, 1, 1, 0, 0).plusHours(round));
+            subTask.setDuration(Duration.ofMinutes(30));
+            taskManager.addSubTask(subTask);
+            Task task = new Task("Задача " + round, "Описание");
+            task.setStartTime(LocalDateTime.of(2025, 1, 1, 0, 30).plusHours(round));
+            task.setDuration(Duration.ofMinutes(30));
+            taskManager.addTask(task);
+            taskManager.addDependency(task.getId(), subTask.getId());
+            taskManager.getTaskById(task.getId());
+            taskManager.getEpicById(epic.getId());
+            taskManager.getSubTaskById(subTask.getId());
+
+            taskManager.deleteEpicById(epic.getId());
+            taskManager.deleteTaskById(task.getId());
+
+            assertNull(taskManager.getTaskById(task.getId()));
+            assertNull(taskManager.getEpicById(epic.getId()));
+            assertNull(taskManager.getSubTaskById(subTask.getId()));
+            assertThrows(NotFoundException.class, () -> taskManager.getDependencies(task.getId()));
+        }
+
+        assertTrue(taskManager.getAllTasks().isEmpty());
+        assertTrue(taskManager.getAllEpics().isEmpty());
+        assertTrue(taskManager.getAllSubTasks().isEmpty());
+        assertTrue(taskManager.getHistory().isEmpty());
+        assertTrue(taskManager.getPrioritizedTasks().isEmpty());
+        assertTrue(taskManager.getPrioritizedTasks(10, null).getItems().isEmpty());
+        assertTrue(taskManager.getActiveTasks(LocalDateTime.of(2025, 1, 1, 10, 45)).isEmpty());
+        assertTrue(taskManager.getTasksByStatus(TaskStatus.NEW).isEmpty());
+        assertTrue(taskManager.getEpicsByStatus(TaskStatus.DONE).isEmpty());
+        assertTrue(taskManager.getSubTasksByStatus(TaskStatus.DONE).isEmpty());
+        assertTrue(taskManager.getTasks(10, null).getItems().isEmpty());
+        assertTrue(taskManager.getEpics(10, null).getItems().isEmpty());
+        assertTrue(taskManager.getSubTasks(10, null).getItems().isEmpty());
+        assertTrue(taskManager.search("задача", 10).isEmpty());
+        assertTrue(taskManager.search("подзадача", 10).isEmpty());
+        assertTrue(taskManager.getCriticalPath().isEmpty());
+    }
+}